@@ -91,4 +91,19 @@ class BoardFactoryTest {
         assertThat(s1.getSquareAt(Direction.SOUTH)).isEqualTo(s2);
         assertThat(s2.getSquareAt(Direction.SOUTH)).isEqualTo(s1);
     }
+
+    /**
+     * Verifies that a board sharing the topology of another board connects
+     * its own squares.
+     */
+    @Test
+    void sharedTopology() {
+        Board first = factory.createBoard(new Square[][]{{s1}, {s2}});
+        Square s3 = new BasicSquare();
+        Square s4 = new BasicSquare();
+        Board second = factory.createBoard(new Square[][]{{s3}, {s4}}, first.getTopology());
+        assertThat(second.getTopology()).isSameAs(first.getTopology());
+        assertThat(s3.getSquareAt(Direction.EAST)).isEqualTo(s4);
+        assertThat(s1.getSquareAt(Direction.EAST)).isEqualTo(s2);
+    }
 }
@@ -0,0 +1,120 @@
+package nl.tudelft.jpacman.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the connected components of a {@link BoardTopology}, and boards
+ * sharing one.
+ */
+class BoardTopologyTest {
+
+    /**
+     * The factory creating the squares.
+     */
+    private BoardFactory factory;
+
+    /**
+     * Resets the factory.
+     */
+    @BeforeEach
+    void setUp() {
+        factory = new BoardFactory(mock(PacManSprites.class));
+    }
+
+    /**
+     * Creates a board of one row.
+     *
+     * @param walls
+     *            Whether the square in each column is a wall.
+     * @return The new board.
+     */
+    private Board row(boolean... walls) {
+        Square[][] grid = new Square[walls.length][1];
+        for (int x = 0; x < walls.length; x++) {
+            if (walls[x]) {
+                grid[x][0] = factory.createWall();
+            } else {
+                grid[x][0] = factory.createGround();
+            }
+        }
+        return factory.createBoard(grid);
+    }
+
+    /**
+     * Verifies that squares connected around the border of the board are in
+     * the same component.
+     */
+    @Test
+    void wrappedComponent() {
+        Board board = row(false, true, false, false);
+        assertThat(board.getTopology().getComponentCount()).isEqualTo(1);
+        assertThat(board.sameComponent(board.squareAt(0, 0), board.squareAt(2, 0))).isTrue();
+    }
+
+    /**
+     * Verifies that squares separated by walls are in different components.
+     */
+    @Test
+    void separatedComponents() {
+        Board board = row(false, true, false, true);
+        assertThat(board.getTopology().getComponentCount()).isEqualTo(2);
+        assertThat(board.sameComponent(board.squareAt(0, 0), board.squareAt(2, 0))).isFalse();
+    }
+
+    /**
+     * Verifies that walls are in no component.
+     */
+    @Test
+    void wallsHaveNoComponent() {
+        Board board = row(false, true);
+        assertThat(board.getTopology().component(1)).isEqualTo(-1);
+        assertThat(board.sameComponent(board.squareAt(1, 0), board.squareAt(1, 0))).isFalse();
+    }
+
+    /**
+     * Verifies that a board sharing a topology only accepts a grid with the
+     * same walkable squares.
+     */
+    @Test
+    void sharedTopologyChecksWalls() {
+        BoardTopology topology = row(false, true).getTopology();
+        Square[][] same = {{factory.createGround()}, {factory.createWall()}};
+        assertThat(factory.createBoard(same, topology).getTopology()).isSameAs(topology);
+
+        Square[][] open = {{factory.createGround()}, {factory.createGround()}};
+        assertThatThrownBy(() -> factory.createBoard(open, topology))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Verifies that a board on a shared topology creates each square once,
+     * when it is first asked for, and links it to its neighbours.
+     */
+    @Test
+    void squaresOnDemand() {
+        BoardTopology topology = row(false, true, false).getTopology();
+        int[] created = new int[1];
+        Board board = factory.createBoard(topology, (x, y) -> {
+            created[0]++;
+            if (topology.isWalkable(x)) {
+                return factory.createGround();
+            }
+            return factory.createWall();
+        });
+        assertThat(created[0]).isZero();
+
+        Square square = board.squareAt(0, 0);
+        assertThat(board.squareAt(0, 0)).isSameAs(square);
+        assertThat(created[0]).isEqualTo(1);
+        assertThat(square.getSquareAt(Direction.WEST)).isSameAs(board.squareAt(2, 0));
+        assertThat(board.sameComponent(square, board.squareAt(2, 0))).isTrue();
+        assertThat(created[0]).isEqualTo(2);
+    }
+}
@@ -0,0 +1,128 @@
+package nl.tudelft.jpacman.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the loading and dropping of chunks by a {@link ChunkedBoard}.
+ */
+@SuppressWarnings("magicnumber")
+class ChunkedBoardTest {
+
+    /**
+     * Creates a board of 10 by 10 squares in chunks of 4 by 4 squares.
+     *
+     * @param maximumSquares
+     *            The number of squares the board may keep loaded.
+     * @return The new board.
+     */
+    private static ChunkedBoard board(long maximumSquares) {
+        return new ChunkedBoard(10, 10, 4, maximumSquares, (x, y) -> new BasicSquare());
+    }
+
+    /**
+     * Verifies that no squares are created until they are asked for, and
+     * that asking again returns the same square.
+     */
+    @Test
+    void lazyLoad() {
+        ChunkedBoard board = board(100);
+        assertThat(board.getLoadedChunkCount()).isZero();
+        Square square = board.squareAt(5, 6);
+        assertThat(board.getLoadedChunkCount()).isEqualTo(1);
+        assertThat(board.squareAt(5, 6)).isSameAs(square);
+        assertThat(square.getIndex()).isEqualTo(65);
+        assertThat(board.getLoadCount()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that a neighbour across a chunk border loads the next chunk.
+     */
+    @Test
+    void neighbourAcrossChunks() {
+        ChunkedBoard board = board(100);
+        Square square = board.squareAt(3, 0);
+        assertThat(square.getSquareAt(Direction.EAST)).isSameAs(board.squareAt(4, 0));
+        assertThat(board.getLoadedChunkCount()).isEqualTo(2);
+    }
+
+    /**
+     * Verifies that neighbours wrap around the border of the board, into the
+     * smaller chunks at the edge.
+     */
+    @Test
+    void neighbourAroundBorder() {
+        ChunkedBoard board = board(100);
+        Square square = board.squareAt(0, 0);
+        assertThat(square.getSquareAt(Direction.WEST)).isSameAs(board.squareAt(9, 0));
+        assertThat(square.getSquareAt(Direction.NORTH)).isSameAs(board.squareAt(0, 9));
+    }
+
+    /**
+     * Verifies that the least recently used chunk is dropped once the board
+     * holds more squares than allowed.
+     */
+    @Test
+    void leastRecentlyUsedDropped() {
+        ChunkedBoard board = board(32);
+        Square first = board.squareAt(0, 0);
+        board.squareAt(4, 0);
+        board.squareAt(0, 0);
+        board.squareAt(0, 4);
+        assertThat(board.getEvictionCount()).isEqualTo(1);
+        assertThat(board.squareAt(0, 0)).isSameAs(first);
+        board.squareAt(4, 0);
+        assertThat(board.getLoadCount()).isEqualTo(4);
+    }
+
+    /**
+     * Verifies that the chunk a unit moves into is kept while the move is in
+     * progress, even when other chunks are loaded in the meantime, and may
+     * be dropped once the move is over.
+     */
+    @Test
+    void moveHoldsDestination() {
+        ChunkedBoard board = board(16);
+        Square location = board.squareAt(3, 0);
+        board.holdMove(location, Direction.EAST);
+        Square destination = location.getSquareAt(Direction.EAST);
+        board.squareAt(0, 4);
+        board.squareAt(4, 4);
+        assertThat(board.squareAt(4, 0)).isSameAs(destination);
+        assertThat(board.getLoadCount()).isEqualTo(4);
+
+        board.releaseMove(location, Direction.EAST);
+        board.squareAt(8, 8);
+        assertThat(board.getLoadedChunkCount()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that chunks with occupied or pinned squares are kept.
+     */
+    @Test
+    void occupiedAndPinnedKept() {
+        ChunkedBoard board = board(16);
+        Square occupied = board.squareAt(0, 0);
+        new BasicUnit().occupy(occupied);
+        Square pinned = board.squareAt(4, 0);
+        board.pin(pinned);
+        board.squareAt(0, 4);
+        board.squareAt(4, 4);
+        assertThat(board.squareAt(0, 0)).isSameAs(occupied);
+        assertThat(board.squareAt(4, 0)).isSameAs(pinned);
+        assertThat(board.getEvictionCount()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that preloading loads every chunk around a position.
+     */
+    @Test
+    void preload() {
+        ChunkedBoard board = board(100);
+        board.preload(5, 5, 1);
+        assertThat(board.getLoadedChunkCount()).isEqualTo(1);
+        board.preload(4, 4, 1);
+        assertThat(board.getLoadedChunkCount()).isEqualTo(4);
+    }
+}
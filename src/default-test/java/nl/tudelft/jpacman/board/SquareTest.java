@@ -1,5 +1,7 @@
 package nl.tudelft.jpacman.board;
 
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -62,4 +64,71 @@ class SquareTest {
 
         assertThat(square.getOccupants()).containsSequence(o1, o2);
     }
+
+    /**
+     * Assert that indexed access follows the order of occupation.
+     */
+    @Test
+    void testIndexedAccess() {
+        Unit o1 = mock(Unit.class);
+        Unit o2 = mock(Unit.class);
+        square.put(o1);
+        square.put(o2);
+
+        assertThat(square.getOccupantCount()).isEqualTo(2);
+        assertThat(square.getOccupant(0)).isEqualTo(o1);
+        assertThat(square.getOccupant(1)).isEqualTo(o2);
+    }
+
+    /**
+     * Assert that the occupant list is shared until the occupants change.
+     */
+    @Test
+    void testSnapshotShared() {
+        Unit occupant = mock(Unit.class);
+        square.put(occupant);
+
+        assertThat(square.getOccupants()).isSameAs(square.getOccupants());
+
+        square.remove(occupant);
+        assertThat(square.getOccupants()).isEmpty();
+    }
+
+    /**
+     * Assert that a list of occupants handed out earlier does not change when
+     * units enter or leave the square later.
+     */
+    @Test
+    void testOccupantsStable() {
+        Unit o1 = mock(Unit.class);
+        Unit o2 = mock(Unit.class);
+        square.put(o1);
+        List<Unit> before = square.getOccupants();
+
+        square.put(o2);
+        square.remove(o1);
+        assertThat(before).containsExactly(o1);
+        assertThat(square.getOccupants()).containsExactly(o2);
+    }
+
+    /**
+     * Assert that the board keeps track of which of its squares are occupied,
+     * including squares occupied before the board was created.
+     */
+    @Test
+    void testOccupiedOnBoard() {
+        Unit early = mock(Unit.class);
+        Square other = new BasicSquare();
+        other.put(early);
+        Board board = new Board(new Square[][]{{square, other}});
+        assertThat(board.getOccupiedSquares()).containsExactly(other);
+
+        Unit occupant = mock(Unit.class);
+        square.put(occupant);
+        other.remove(early);
+        assertThat(board.getOccupiedSquares()).containsExactly(square);
+
+        square.remove(occupant);
+        assertThat(board.getOccupiedSquares()).isEmpty();
+    }
 }
@@ -0,0 +1,78 @@
+package nl.tudelft.jpacman.game;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests following key presses through the stages of {@link InputLatency}.
+ */
+@SuppressWarnings("magicnumber")
+class InputLatencyTest {
+
+    private final InputLatency latency = new InputLatency();
+
+    /**
+     * Verifies that the sequence number of a key press can be claimed once,
+     * on the thread that pressed it.
+     */
+    @Test
+    void claimOnce() {
+        long sequence = latency.pressed(System.currentTimeMillis());
+        assertThat(sequence).isNotEqualTo(InputLatency.NO_INPUT);
+        assertThat(latency.claim()).isEqualTo(sequence);
+        assertThat(latency.claim()).isEqualTo(InputLatency.NO_INPUT);
+        assertThat(latency.getDispatch().getCount()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that the sequence number of a key press whose action did not
+     * claim it is dropped once the action has run.
+     */
+    @Test
+    void dispatchedDropsUnclaimed() {
+        latency.pressed(System.currentTimeMillis());
+        latency.dispatched();
+        assertThat(latency.claim()).isEqualTo(InputLatency.NO_INPUT);
+    }
+
+    /**
+     * Verifies that a key press is counted in every stage once a frame
+     * showing its move was painted, and only once.
+     */
+    @Test
+    void followsMoveToFrame() {
+        long sequence = latency.pressed(System.currentTimeMillis());
+        latency.moveStarted(sequence);
+        latency.lockAcquired(sequence, 5L);
+        latency.moved(sequence);
+        long shown = latency.frameStarted();
+        assertThat(shown).isEqualTo(sequence);
+        assertThat(latency.getTotal().getCount()).isZero();
+
+        latency.framePainted(shown);
+        latency.framePainted(latency.frameStarted());
+        assertThat(latency.getQueue().getCount()).isEqualTo(1);
+        assertThat(latency.getLock().getMax()).isEqualTo(5L);
+        assertThat(latency.getRender().getCount()).isEqualTo(1);
+        assertThat(latency.getTotal().getCount()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that key presses without a move, and moves not asked for with
+     * a key, are not counted after the dispatch stage.
+     */
+    @Test
+    void ignoresPressesWithoutMove() {
+        latency.pressed(System.currentTimeMillis());
+        long moving = latency.pressed(System.currentTimeMillis());
+        latency.moveStarted(InputLatency.NO_INPUT);
+        latency.moved(InputLatency.NO_INPUT);
+        latency.moveStarted(moving);
+        latency.moved(moving);
+        latency.framePainted(latency.frameStarted());
+        assertThat(latency.getDispatch().getCount()).isEqualTo(2);
+        assertThat(latency.getQueue().getCount()).isEqualTo(1);
+        assertThat(latency.getTotal().getCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,142 @@
+package nl.tudelft.jpacman.game;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests how the {@link InputQueue} applies the moves asked for. The queue is
+ * ticked by the tests instead of by its own thread.
+ */
+class InputQueueTest {
+
+    private Game game;
+    private Player player;
+    private Board board;
+    private InputQueue queue;
+
+    /**
+     * Creates a game on a small board without ghosts, with the player in the
+     * top left corner of the corridors.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new DefaultPointCalculator()), new BoardFactory(sprites));
+        game = new GameFactory(new PlayerFactory(sprites)).createSinglePlayerGame(
+            parser.parseMap(Lists.newArrayList("#####", "#P..#", "#.#.#", "#####")),
+            new DefaultPointCalculator());
+        player = game.getPlayers().get(0);
+        board = game.getLevel().getBoard();
+        queue = new InputQueue(game, player);
+        game.start();
+    }
+
+    /**
+     * Verifies that a move is only made when the queue ticks, and that its
+     * latency is measured.
+     */
+    @Test
+    void movesOnTick() {
+        queue.submit(Direction.EAST);
+        assertThat(player.getSquare()).isEqualTo(board.squareAt(1, 1));
+        assertThat(queue.getQueueDepth()).isEqualTo(1);
+
+        queue.tick();
+        assertThat(player.getSquare()).isEqualTo(board.squareAt(2, 1));
+        assertThat(queue.getQueueDepth()).isZero();
+        assertThat(queue.getMoveCount()).isEqualTo(1);
+        assertThat(queue.getMaxLatency()).isPositive();
+    }
+
+    /**
+     * Verifies that repeats of a queued move are dropped, but not repeats of
+     * a move already made.
+     */
+    @Test
+    void coalescesRepeats() {
+        queue.submit(Direction.EAST);
+        queue.submit(Direction.EAST);
+        queue.submit(Direction.EAST);
+        assertThat(queue.getQueueDepth()).isEqualTo(1);
+        assertThat(queue.getCoalescedMoves()).isEqualTo(2);
+
+        queue.tick();
+        queue.submit(Direction.EAST);
+        assertThat(queue.getQueueDepth()).isEqualTo(1);
+        assertThat(queue.getMaxQueueDepth()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that a move into a wall turns the player, and is taken as soon
+     * as it is possible, instead of the move asked for then.
+     */
+    @Test
+    void takesBufferedTurn() {
+        queue.submit(Direction.EAST);
+        queue.tick();
+        queue.submit(Direction.SOUTH);
+        queue.tick();
+        assertThat(player.getSquare()).isEqualTo(board.squareAt(2, 1));
+        assertThat(player.getDirection()).isEqualTo(Direction.SOUTH);
+
+        queue.submit(Direction.EAST);
+        queue.tick();
+        assertThat(player.getSquare()).isEqualTo(board.squareAt(3, 1));
+
+        queue.submit(Direction.EAST);
+        queue.tick();
+        assertThat(player.getSquare()).isEqualTo(board.squareAt(3, 2));
+    }
+
+    /**
+     * Verifies that moves asked for while the game is stopped are dropped.
+     */
+    @Test
+    void dropsMovesWhileStopped() {
+        game.stop();
+        queue.submit(Direction.EAST);
+        queue.tick();
+        game.start();
+        queue.tick();
+        assertThat(player.getSquare()).isEqualTo(board.squareAt(1, 1));
+        assertThat(queue.getMoveCount()).isZero();
+    }
+
+    /**
+     * Verifies that a move that fails does not stop the queue from making
+     * the next move.
+     */
+    @Test
+    void survivesFailedMove() {
+        Game failing = spy(game);
+        doThrow(new IllegalStateException("move failed")).when(failing)
+            .move(any(Player.class), any(Direction.class), anyLong());
+        InputQueue failingQueue = new InputQueue(failing, player);
+        failingQueue.submit(Direction.EAST);
+        failingQueue.tick();
+        assertThat(failingQueue.getQueueDepth()).isZero();
+
+        failingQueue.submit(Direction.WEST);
+        failingQueue.tick();
+        assertThat(failingQueue.getQueueDepth()).isZero();
+        assertThat(failingQueue.getMoveCount()).isZero();
+    }
+}
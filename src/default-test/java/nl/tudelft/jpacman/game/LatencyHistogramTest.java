@@ -0,0 +1,69 @@
+package nl.tudelft.jpacman.game;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the buckets and percentiles of a {@link LatencyHistogram}.
+ */
+@SuppressWarnings("magicnumber")
+class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram("test");
+
+    /**
+     * Verifies that short durations have a bucket each.
+     */
+    @Test
+    void shortDurationsExact() {
+        for (long value = 0; value < 16; value++) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertThat(LatencyHistogram.lowest(bucket)).isEqualTo(value);
+            assertThat(LatencyHistogram.highest(bucket)).isEqualTo(value);
+        }
+    }
+
+    /**
+     * Verifies that every duration falls within its bucket, and that buckets
+     * are at most a sixteenth of their durations wide.
+     */
+    @Test
+    void bucketsLogLinear() {
+        for (long value = 16; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            int bucket = LatencyHistogram.bucket(value);
+            long lowest = LatencyHistogram.lowest(bucket);
+            long highest = LatencyHistogram.highest(bucket);
+            assertThat(value).isBetween(lowest, highest);
+            assertThat(highest - lowest + 1).isLessThanOrEqualTo(value / 16);
+        }
+        assertThat(LatencyHistogram.highest(LatencyHistogram.bucket(Long.MAX_VALUE)))
+            .isEqualTo(Long.MAX_VALUE);
+    }
+
+    /**
+     * Verifies the statistics of a thousand durations from 1 to 1000
+     * microseconds.
+     */
+    @Test
+    void percentiles() {
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getMean()).isEqualTo(500_500.0);
+        assertThat(histogram.getMax()).isEqualTo(1_000_000);
+        assertThat(histogram.getValueAtPercentile(50.0)).isBetween(500_000L, 532_000L);
+        assertThat(histogram.getValueAtPercentile(100.0)).isEqualTo(1_000_000);
+    }
+
+    /**
+     * Verifies that an empty histogram reports zeroes.
+     */
+    @Test
+    void empty() {
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getMean()).isZero();
+        assertThat(histogram.getValueAtPercentile(99.0)).isZero();
+    }
+}
@@ -0,0 +1,87 @@
+package nl.tudelft.jpacman.level;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import nl.tudelft.jpacman.level.CollisionInteractionMap.CollisionHandler;
+import nl.tudelft.jpacman.npc.Ghost;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the dispatch of collisions by the {@link CollisionInteractionMap}.
+ */
+@SuppressWarnings("unchecked")
+class CollisionInteractionMapTest {
+
+    /**
+     * The map under test.
+     */
+    private CollisionInteractionMap map;
+
+    /**
+     * The handler registered for players colliding with ghosts.
+     */
+    private CollisionHandler<Player, Ghost> handler;
+
+    private final Player player = mock(Player.class);
+    private final Ghost ghost = mock(Ghost.class);
+
+    /**
+     * Resets the map under test.
+     */
+    @BeforeEach
+    void setUp() {
+        map = new CollisionInteractionMap();
+        handler = mock(CollisionHandler.class);
+    }
+
+    /**
+     * Verifies that a listed collision reaches its handler.
+     */
+    @Test
+    @SuppressWarnings("PMD.JUnitTestsShouldIncludeAssert")
+    void listedCollision() {
+        map.onCollision(Player.class, Ghost.class, handler);
+        map.collide(player, ghost);
+        verify(handler).handleCollision(player, ghost);
+    }
+
+    /**
+     * Verifies that a symmetric collision reaches the handler with the
+     * arguments swapped.
+     */
+    @Test
+    @SuppressWarnings("PMD.JUnitTestsShouldIncludeAssert")
+    void inverseCollision() {
+        map.onCollision(Player.class, Ghost.class, handler);
+        map.collide(ghost, player);
+        verify(handler).handleCollision(player, ghost);
+    }
+
+    /**
+     * Verifies that registering a handler replaces a cached "no handler"
+     * result for the same pair.
+     */
+    @Test
+    @SuppressWarnings("PMD.JUnitTestsShouldIncludeAssert")
+    void registrationInvalidatesCache() {
+        map.collide(player, ghost);
+        map.onCollision(Player.class, Ghost.class, handler);
+        map.collide(player, ghost);
+        verify(handler).handleCollision(player, ghost);
+    }
+
+    /**
+     * Verifies that a one-way collision is not handled the other way around.
+     */
+    @Test
+    @SuppressWarnings("PMD.JUnitTestsShouldIncludeAssert")
+    void asymmetricCollision() {
+        map.onCollision(Player.class, Ghost.class, false, handler);
+        map.collide(ghost, player);
+        verify(handler, never()).handleCollision(player, ghost);
+    }
+}
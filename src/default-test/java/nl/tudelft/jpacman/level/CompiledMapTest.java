@@ -0,0 +1,139 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.PointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests compiling maps with the {@link MapCompiler} and reading them back as
+ * {@link CompiledMap}s.
+ */
+@SuppressWarnings("magicnumber")
+class CompiledMapTest {
+
+    /**
+     * Compiles a map in memory.
+     *
+     * @param rows
+     *            The rows of the map.
+     * @return The bytes of the compiled map.
+     * @throws IOException
+     *             never, the map is compiled in memory.
+     */
+    private static byte[] compileBytes(String... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MapCompiler.compile(Arrays.asList(rows), out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Verifies that the squares of the text map survive compilation.
+     *
+     * @throws IOException
+     *             never.
+     */
+    @Test
+    void squares() throws IOException {
+        CompiledMap map = CompiledMap.wrap(compileBytes("#####", "#P.G#", "#####"));
+        assertThat(map.getWidth()).isEqualTo(5);
+        assertThat(map.getHeight()).isEqualTo(3);
+        assertThat(map.isWall(0)).isTrue();
+        assertThat(map.isWall(6)).isFalse();
+        assertThat(map.hasPellet(7)).isTrue();
+        assertThat(map.getStartPositions()).containsExactly(6);
+        assertThat(map.getGhosts()).containsExactly(8);
+    }
+
+    /**
+     * Verifies that files of another format are rejected.
+     */
+    @Test
+    void notCompiled() {
+        assertThatThrownBy(() -> CompiledMap.wrap(new byte[16]))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+
+    /**
+     * Verifies that a compiled map cut short anywhere is rejected.
+     *
+     * @throws IOException
+     *             never.
+     */
+    @Test
+    void truncated() throws IOException {
+        byte[] compiled = compileBytes("#####", "#P.G#", "#####");
+        for (int length = 0; length < compiled.length; length++) {
+            byte[] cut = Arrays.copyOf(compiled, length);
+            assertThatThrownBy(() -> CompiledMap.wrap(cut))
+                .isInstanceOf(PacmanConfigurationException.class);
+        }
+    }
+
+    /**
+     * Verifies that index lists that do not fit the map are rejected.
+     *
+     * @throws IOException
+     *             never.
+     */
+    @Test
+    void corrupt() throws IOException {
+        byte[] compiled = compileBytes("#####", "#P.G#", "#####");
+        ByteBuffer.wrap(compiled).putInt(4 * Integer.BYTES, Integer.MAX_VALUE);
+        assertThatThrownBy(() -> CompiledMap.wrap(compiled))
+            .isInstanceOf(PacmanConfigurationException.class);
+
+        byte[] outside = compileBytes("#####", "#P.G#", "#####");
+        ByteBuffer.wrap(outside).putInt(5 * Integer.BYTES, 15);
+        assertThatThrownBy(() -> CompiledMap.wrap(outside))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+
+    /**
+     * Verifies that a level loaded from a compiled file matches the level
+     * parsed from its text.
+     *
+     * @param directory
+     *            A temporary directory for the map files.
+     * @throws IOException
+     *             when the map files could not be written.
+     */
+    @Test
+    void loadedLevel(@TempDir Path directory) throws IOException {
+        Path text = directory.resolve("board.txt");
+        Path compiled = directory.resolve("board.jpm");
+        try (InputStream board = getClass().getResourceAsStream("/board.txt")) {
+            Files.copy(board, text, StandardCopyOption.REPLACE_EXISTING);
+        }
+        MapCompiler.compile(text, compiled);
+
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites,
+            new GhostFactory(sprites), mock(PointCalculator.class)), new BoardFactory(sprites));
+        Level expected = parser.parseMap(Files.newInputStream(text));
+        Level level = parser.parseCompiledMap(compiled);
+
+        assertThat(level.getBoard().getWidth()).isEqualTo(expected.getBoard().getWidth());
+        assertThat(level.getBoard().getHeight()).isEqualTo(expected.getBoard().getHeight());
+        assertThat(level.remainingPellets()).isEqualTo(expected.remainingPellets());
+        assertThat(level.getBoard().squareAt(0, 0).isAccessibleTo(mock(Unit.class))).isFalse();
+    }
+}
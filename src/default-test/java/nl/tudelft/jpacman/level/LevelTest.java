@@ -2,13 +2,20 @@ package nl.tudelft.jpacman.level;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.level.Level.LevelObserver;
 import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.PointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
 
 import com.google.common.collect.Lists;
 import org.junit.jupiter.api.BeforeEach;
@@ -154,4 +161,48 @@ class LevelTest {
         level.registerPlayer(p3);
         verify(p3).occupy(square1);
     }
+
+    /**
+     * Verifies that a level reports that it cannot be won as soon as the
+     * remaining pellets are walled off from the player.
+     */
+    @Test
+    void unwinnable() {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            mock(PointCalculator.class)), new BoardFactory(sprites));
+        Level walledOff = parser.parseMap(Lists.newArrayList("#P#.#"));
+        LevelObserver observer = mock(LevelObserver.class);
+        walledOff.addObserver(observer);
+        walledOff.registerPlayer(new PlayerFactory(sprites).createPacMan());
+
+        walledOff.start();
+
+        assertThat(walledOff.isUnwinnable()).isTrue();
+        verify(observer).levelUnwinnable();
+    }
+
+    /**
+     * Validates that a move reports its source and destination square, so
+     * views only have to redraw those.
+     */
+    @Test
+    void moveReportsSquares() {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            mock(PointCalculator.class)), new BoardFactory(sprites));
+        Level open = parser.parseMap(Lists.newArrayList("#P.#"));
+        Player player = new PlayerFactory(sprites).createPacMan();
+        open.registerPlayer(player);
+        LevelObserver observer = mock(LevelObserver.class);
+        open.addObserver(observer);
+        Square from = player.getSquare();
+
+        open.start();
+        open.move(player, Direction.EAST);
+
+        verify(observer).squareChanged(from);
+        verify(observer).squareChanged(player.getSquare());
+        verify(observer, times(2)).squareChanged(any());
+    }
 }
@@ -0,0 +1,141 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the reuse and eviction of maps by the {@link MapTemplateCache}.
+ */
+@SuppressWarnings("magicnumber")
+class MapTemplateCacheTest {
+
+    /**
+     * The directory the map files are written to.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * The factory creating the squares of the boards.
+     */
+    private BoardFactory boardFactory;
+
+    /**
+     * Creates the board factory.
+     */
+    @BeforeEach
+    void setUp() {
+        boardFactory = new BoardFactory(new PacManSprites());
+    }
+
+    private URL write(String name, String text, long modified) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified));
+        return file.toUri().toURL();
+    }
+
+    /**
+     * Verifies that a resource read twice is compiled once.
+     *
+     * @throws IOException
+     *             when the map file could not be written.
+     */
+    @Test
+    void hit() throws IOException {
+        MapTemplateCache cache = new MapTemplateCache(100);
+        URL map = write("map.txt", "#.\n P\n", 1000L);
+        MapTemplateCache.Template first = cache.get(map, boardFactory);
+        MapTemplateCache.Template second = cache.get(map, boardFactory);
+        assertThat(second).isSameAs(first);
+        assertThat(first.getMap().hasPellet(1)).isTrue();
+        assertThat(first.getMap().getStartPositions()).containsExactly(3);
+        assertThat(first.getTopology().isWalkable(0)).isFalse();
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that a changed resource is compiled again.
+     *
+     * @throws IOException
+     *             when the map file could not be written.
+     */
+    @Test
+    void changedContent() throws IOException {
+        MapTemplateCache cache = new MapTemplateCache(100);
+        cache.get(write("map.txt", "#.", 1000L), boardFactory);
+        CompiledMap changed = cache.get(write("map.txt", ".#", 2000L), boardFactory).getMap();
+        assertThat(changed.hasPellet(0)).isTrue();
+        assertThat(cache.stats().hitCount()).isZero();
+    }
+
+    /**
+     * Verifies that board factories with different squares get templates of
+     * their own.
+     *
+     * @throws IOException
+     *             when the map file could not be written.
+     */
+    @Test
+    void keyedOnBoardFactory() throws IOException {
+        MapTemplateCache cache = new MapTemplateCache(100);
+        URL map = write("map.txt", "#P", 1000L);
+        BoardFactory open = new BoardFactory(new PacManSprites()) {
+            @Override
+            public Square createWall() {
+                return createGround();
+            }
+        };
+        assertThat(cache.get(map, boardFactory).getTopology().isWalkable(0)).isFalse();
+        assertThat(cache.get(map, open).getTopology().isWalkable(0)).isTrue();
+        assertThat(cache.stats().hitCount()).isZero();
+    }
+
+    /**
+     * Verifies that maps are evicted once the cache holds too many squares.
+     *
+     * @throws IOException
+     *             when the map files could not be written.
+     */
+    @Test
+    void eviction() throws IOException {
+        MapTemplateCache cache = new MapTemplateCache(4);
+        cache.get(write("a.txt", "###", 1000L), boardFactory);
+        cache.get(write("b.txt", "...", 1000L), boardFactory);
+        assertThat(cache.stats().evictionCount()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that malformed maps are rejected and not kept.
+     *
+     * @throws IOException
+     *             when the map file could not be written.
+     */
+    @Test
+    void malformed() throws IOException {
+        MapTemplateCache cache = new MapTemplateCache(100);
+        URL map = write("bad.txt", "##\n#\n", 1000L);
+        assertThatThrownBy(() -> cache.get(map, boardFactory))
+            .isInstanceOf(PacmanConfigurationException.class);
+        assertThatThrownBy(() -> cache.get(map, boardFactory))
+            .isInstanceOf(PacmanConfigurationException.class);
+        assertThat(cache.stats().hitCount()).isZero();
+    }
+}
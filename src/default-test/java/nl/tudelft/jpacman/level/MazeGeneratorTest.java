@@ -0,0 +1,75 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.UnitKind;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.PointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the mazes of the {@link MazeGenerator}.
+ */
+@SuppressWarnings("magicnumber")
+class MazeGeneratorTest {
+
+    /**
+     * Verifies that the same seed gives the same maze, also when the maze is
+     * carved in several bands.
+     */
+    @Test
+    void sameSeed() {
+        MazeGenerator generator = new MazeGenerator(42).withLoops(0.1).withRooms(0.05);
+        assertThat(generator.generate(150, 301)).isDeepEqualTo(generator.generate(150, 301));
+        assertThat(new MazeGenerator(43).generate(150, 301))
+            .isNotDeepEqualTo(generator.generate(150, 301));
+    }
+
+    /**
+     * Verifies that every open square can be reached from every other, across
+     * the borders between bands.
+     */
+    @Test
+    void connected() {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            mock(PointCalculator.class)), new BoardFactory(sprites));
+        Level level = new MazeGenerator(7).withRooms(0.1).generateLevel(parser, 100, 300);
+        assertThat(level.getBoard().getTopology().getComponentCount()).isEqualTo(1);
+        assertThat(level.getBoard().countOccupants(UnitKind.GHOST)).isEqualTo(4);
+    }
+
+    /**
+     * Verifies the number of players, ghosts and pellets on a maze.
+     */
+    @Test
+    void units() {
+        List<String> lines = new MazeGenerator(1).withPlayers(2).withGhosts(3)
+            .withPellets(0.0).generateLines(21, 11);
+        String text = String.join("", lines);
+        assertThat(lines).hasSize(11);
+        assertThat(lines.get(0)).hasSize(21).matches("#+");
+        assertThat(text.chars().filter(c -> c == 'P')).hasSize(2);
+        assertThat(text.chars().filter(c -> c == 'G')).hasSize(3);
+        assertThat(text).doesNotContain(".");
+    }
+
+    /**
+     * Verifies that mazes too small for their units are rejected.
+     */
+    @Test
+    void tooSmall() {
+        assertThatThrownBy(() -> new MazeGenerator(1).generate(2, 5))
+            .isInstanceOf(PacmanConfigurationException.class);
+        assertThatThrownBy(() -> new MazeGenerator(1).generate(3, 3))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+}
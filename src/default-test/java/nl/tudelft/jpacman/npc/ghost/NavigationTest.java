@@ -6,6 +6,7 @@ import nl.tudelft.jpacman.board.BoardFactory;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level;
 import nl.tudelft.jpacman.level.LevelFactory;
 import nl.tudelft.jpacman.level.MapParser;
 import nl.tudelft.jpacman.level.Pellet;
@@ -132,6 +133,21 @@ class NavigationTest {
         assertThat(result).isEqualTo(s2);
     }
 
+    /**
+     * Verifies that a pellet of the pellet layer that is found becomes an
+     * occupant of its square, and still counts as a remaining pellet.
+     */
+    @Test
+    void testPelletFromLayer() {
+        Level level = parser.parseMap(Lists.newArrayList("#####", "# ..#", "#####"));
+        Square s2 = level.getBoard().squareAt(2, 1);
+        Pellet pellet = Navigation.findUnit(Pellet.class, s2);
+        assertThat(pellet).isNotNull();
+        assertThat(s2.getOccupants()).containsExactly(pellet);
+        assertThat(level.getPellets().hasPellet(s2)).isFalse();
+        assertThat(level.remainingPellets()).isEqualTo(2);
+    }
+
     /**
      * Verifies that there is no such location if there is no nearest object.
      */
@@ -0,0 +1,101 @@
+package nl.tudelft.jpacman.sprite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.awt.Graphics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies which frame an {@link AnimatedSprite} shows at which time of its
+ * {@link AnimationClock}.
+ */
+@SuppressWarnings("magicnumber")
+class AnimatedSpriteTest {
+
+    private static final int DELAY = 100;
+
+    private final AnimationClock clock = new AnimationClock();
+    private final Graphics graphics = mock(Graphics.class);
+    private Sprite[] frames;
+
+    /**
+     * Creates three frames.
+     */
+    @BeforeEach
+    void setUp() {
+        frames = new Sprite[] {mock(Sprite.class), mock(Sprite.class), mock(Sprite.class)};
+    }
+
+    private AnimatedSprite animate(boolean loop, boolean animating) {
+        return new AnimatedSprite(new Animation(frames, DELAY, loop), animating, clock);
+    }
+
+    private void draw(Sprite sprite) {
+        sprite.draw(graphics, 0, 0, 16, 16);
+    }
+
+    /**
+     * Verifies that a looping animation picks its frame from the time alone,
+     * also after a long pause.
+     */
+    @Test
+    void looping() {
+        AnimatedSprite sprite = animate(true, true);
+        clock.set(1_000_000_150L);
+        draw(sprite);
+        verify(frames[(int) (1_000_000_150L / DELAY % 3)]).draw(graphics, 0, 0, 16, 16);
+        assertThat(sprite.isAnimating()).isTrue();
+    }
+
+    /**
+     * Verifies that a non-looping animation counts from its restart and ends
+     * after its last frame.
+     */
+    @Test
+    void nonLooping() {
+        clock.set(500);
+        AnimatedSprite sprite = animate(false, false);
+        clock.set(1_000);
+        sprite.restart();
+        clock.set(1_250);
+        draw(sprite);
+        verify(frames[2]).draw(graphics, 0, 0, 16, 16);
+        clock.set(1_300);
+        assertThat(sprite.isAnimating()).isFalse();
+        draw(sprite);
+        verify(frames[0], never()).draw(graphics, 0, 0, 16, 16);
+        verify(frames[1], never()).draw(graphics, 0, 0, 16, 16);
+    }
+
+    /**
+     * Verifies that a stopped animation keeps showing its frame.
+     */
+    @Test
+    void stopped() {
+        AnimatedSprite sprite = animate(false, true);
+        clock.set(120);
+        sprite.setAnimating(false);
+        clock.set(10_000);
+        draw(sprite);
+        verify(frames[1]).draw(graphics, 0, 0, 16, 16);
+        sprite.setAnimating(true);
+        clock.set(10_100);
+        draw(sprite);
+        verify(frames[2]).draw(graphics, 0, 0, 16, 16);
+    }
+
+    /**
+     * Verifies that the clock does not go back.
+     */
+    @Test
+    void clockMonotonic() {
+        clock.set(200);
+        clock.set(100);
+        assertThat(clock.millis()).isEqualTo(200);
+    }
+}
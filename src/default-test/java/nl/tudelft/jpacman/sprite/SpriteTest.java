@@ -3,6 +3,9 @@ package nl.tudelft.jpacman.sprite;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -109,4 +112,104 @@ public class SpriteTest {
         Sprite split = sprite.split(10, 10, 64, 10);
         assertThat(split).isInstanceOf(EmptySprite.class);
     }
+
+    /**
+     * Verifies that a split sprite is drawn scaled to the requested size,
+     * also after it was drawn at another size.
+     */
+    @Test
+    public void drawScaled() {
+        Sprite split = sprite.split(8, 8, 16, 16);
+        BufferedImage image = new BufferedImage(40, 40, BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = image.getGraphics();
+        split.draw(graphics, 0, 0, 16, 16);
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(0, 0, 40, 40);
+        split.draw(graphics, 4, 4, 32, 32);
+        graphics.dispose();
+        assertThat(image.getRGB(4, 4)).isEqualTo(Color.WHITE.getRGB());
+        assertThat(image.getRGB(35, 35)).isEqualTo(Color.WHITE.getRGB());
+        assertThat(image.getRGB(3, 3)).isEqualTo(Color.BLACK.getRGB());
+        assertThat(image.getRGB(36, 36)).isEqualTo(Color.BLACK.getRGB());
+    }
+
+    /**
+     * Verifies that sprites loaded by the same store share an atlas, and
+     * splitting the same region twice does not add it twice.
+     */
+    @Test
+    public void sharedAtlas() {
+        SpriteAtlas atlas = new SpriteAtlas();
+        Sprite first = new ImageSprite(atlas, new BufferedImage(64, 64,
+            BufferedImage.TYPE_INT_ARGB));
+        int region = atlas.region(0, 0, 16, 16);
+        first.split(0, 0, 16, 16);
+        assertThat(atlas.region(0, 0, 16, 16)).isEqualTo(region);
+        Sprite second = new ImageSprite(atlas, new BufferedImage(16, 16,
+            BufferedImage.TYPE_INT_ARGB));
+        assertThat(second.getWidth()).isEqualTo(16);
+        assertThat(atlas.bounds(region + 1).x).isEqualTo(64);
+    }
+
+    /**
+     * Verifies that regions are scaled on their own to every size they are
+     * drawn at, including regions added after others were drawn.
+     */
+    @Test
+    public void scaledPerRegion() {
+        SpriteAtlas atlas = new SpriteAtlas();
+        int red = atlas.add(filled(0xFFFF0000));
+        int[] raster = new int[8 * 8];
+        atlas.drawPixels(red, raster, 0, 8, 8, 8);
+        int blue = atlas.add(filled(0xFF0000FF));
+        atlas.drawPixels(blue, raster, 0, 8, 4, 4);
+        assertThat(raster[0]).isEqualTo(0xFF0000FF);
+        assertThat(raster[3 * 8 + 3]).isEqualTo(0xFF0000FF);
+        assertThat(raster[4 * 8 + 4]).isEqualTo(0xFFFF0000);
+        atlas.drawPixels(blue, raster, 0, 8, 8, 8);
+        assertThat(raster[7 * 8 + 7]).isEqualTo(0xFF0000FF);
+    }
+
+    private static BufferedImage filled(int argb) {
+        BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 2; x++) {
+                image.setRGB(x, y, argb);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Verifies that an animation is cut once and shared by the sprites
+     * playing it.
+     *
+     * @throws IOException
+     *             when the sprite could not be loaded.
+     */
+    @Test
+    public void sharedAnimation() throws IOException {
+        Animation animation = store.loadAnimation("/sprite/64x64white.png", 16, 16, 4, 0, true);
+        assertThat(animation.getFrameCount()).isEqualTo(4);
+        assertThat(animation.getFrame(0).getHeight()).isEqualTo(16);
+        assertThat(store.loadAnimation("/sprite/64x64white.png", 16, 16, 4, 0, true))
+            .isSameAs(animation);
+        AnimatedSprite first = new AnimatedSprite(animation, true);
+        AnimatedSprite second = new AnimatedSprite(animation, false);
+        assertThat(first.getAnimation()).isSameAs(second.getAnimation());
+    }
+
+    /**
+     * Verifies that a sprite draws its pixels scaled into a raster.
+     */
+    @Test
+    public void drawPixels() {
+        int[] raster = new int[40 * 40];
+        assertThat(sprite.split(8, 8, 16, 16).drawPixels(raster, 4 * 40 + 4, 40, 32, 32))
+            .isTrue();
+        assertThat(raster[4 * 40 + 4]).isEqualTo(Color.WHITE.getRGB());
+        assertThat(raster[35 * 40 + 35]).isEqualTo(Color.WHITE.getRGB());
+        assertThat(raster[3 * 40 + 3]).isZero();
+        assertThat(raster[36 * 40 + 36]).isZero();
+    }
 }
@@ -0,0 +1,109 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Point;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.MazeGenerator;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests which squares a {@link Camera} shows.
+ */
+@SuppressWarnings("magicnumber")
+class CameraTest {
+
+    private PacManSprites sprites;
+    private MapParser parser;
+    private Camera camera;
+
+    /**
+     * Creates a camera with squares of 10 pixels.
+     */
+    @BeforeEach
+    void setUp() {
+        sprites = new PacManSprites();
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new DefaultPointCalculator()), new BoardFactory(sprites));
+        camera = new Camera(10);
+    }
+
+    private Level maze(int width, int height) {
+        return new MazeGenerator(7).generateLevel(parser, width, height);
+    }
+
+    /**
+     * Verifies that the number of visible squares depends on the window and
+     * not on the board, and that partly visible squares are included.
+     */
+    @Test
+    void viewIndependentOfBoard() {
+        for (int size : new int[] {31, 201}) {
+            camera.panTo(15, 15);
+            Camera.View view = camera.view(maze(size, size).getBoard(), 100, 60);
+            assertThat(view.getColumns()).isEqualTo(11);
+            assertThat(view.getRows()).isEqualTo(7);
+            assertThat(view.getLeft()).isEqualTo(10);
+            assertThat(view.getTop()).isEqualTo(12);
+            assertThat(view.getOffsetX()).isEqualTo(-5);
+            assertThat(view.getOffsetY()).isEqualTo(-5);
+        }
+    }
+
+    /**
+     * Verifies that the view wraps around the edges of the board.
+     */
+    @Test
+    void wrapsAround() {
+        Board board = maze(31, 21).getBoard();
+        camera.panTo(-1, 21);
+        assertThat(camera.centre(board)).isEqualTo(new Point(30, 0));
+        Camera.View view = camera.view(board, 100, 60);
+        assertThat(view.getLeft()).isEqualTo(25);
+        assertThat(view.getTop()).isEqualTo(-3);
+    }
+
+    /**
+     * Verifies that a board smaller than the window is shown once, centred.
+     */
+    @Test
+    void smallBoardShownWhole() {
+        Camera.View view = camera.view(maze(31, 21).getBoard(), 400, 300);
+        assertThat(view.getColumns()).isEqualTo(31);
+        assertThat(view.getRows()).isEqualTo(21);
+        assertThat(view.getOffsetX()).isEqualTo(45);
+        assertThat(view.getOffsetY()).isEqualTo(45);
+    }
+
+    /**
+     * Verifies that the camera follows a unit until it is panned.
+     */
+    @Test
+    void followsUntilPanned() {
+        Level level = maze(31, 21);
+        Player player = new PlayerFactory(sprites).createPacMan();
+        level.registerPlayer(player);
+        Board board = level.getBoard();
+        int index = player.getSquare().getIndex();
+        Point start = new Point(index % 31, index / 31);
+
+        camera.follow(player);
+        assertThat(camera.centre(board)).isEqualTo(start);
+
+        camera.panBy(1, 0);
+        player.leaveSquare();
+        assertThat(camera.centre(board)).isEqualTo(new Point((start.x + 1) % 31, start.y));
+    }
+}
@@ -0,0 +1,75 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the frame statistics of {@link FrameMetrics}.
+ */
+@SuppressWarnings("magicnumber")
+class FrameMetricsTest {
+
+    /**
+     * Verifies that no frames means no frame times.
+     */
+    @Test
+    void empty() {
+        FrameMetrics metrics = new FrameMetrics();
+        assertThat(metrics.getFrameCount()).isZero();
+        assertThat(metrics.getFrameTime(99.0)).isZero();
+        assertThat(metrics.getFramesPerSecond()).isZero();
+    }
+
+    /**
+     * Verifies the percentiles and frame rate of a hundred frames.
+     */
+    @Test
+    void percentiles() {
+        FrameMetrics metrics = new FrameMetrics();
+        for (int i = 100; i > 0; i--) {
+            metrics.frameShown(i * 1_000_000L);
+        }
+        metrics.framesDropped(3);
+        assertThat(metrics.getFrameTime(0.0)).isEqualTo(1_000_000L);
+        assertThat(metrics.getFrameTime(50.0)).isEqualTo(50_000_000L);
+        assertThat(metrics.getFrameTime(99.0)).isEqualTo(99_000_000L);
+        assertThat(metrics.getFrameTime(100.0)).isEqualTo(100_000_000L);
+        assertThat(metrics.getFramesPerSecond()).isCloseTo(100 / 5.05, within(1e-9));
+        assertThat(metrics.getDroppedFrames()).isEqualTo(3);
+    }
+
+    /**
+     * Verifies that only the most recent frames count for the percentiles.
+     */
+    @Test
+    void recentFramesOnly() {
+        FrameMetrics metrics = new FrameMetrics();
+        for (int i = 0; i < 5000; i++) {
+            metrics.frameShown(1_000_000_000L);
+        }
+        for (int i = 0; i < 1024; i++) {
+            metrics.frameShown(10_000_000L);
+        }
+        assertThat(metrics.getFrameCount()).isEqualTo(6024);
+        assertThat(metrics.getFrameTime(100.0)).isEqualTo(10_000_000L);
+        assertThat(metrics.getFramesPerSecond()).isCloseTo(100.0, within(1e-9));
+    }
+
+    /**
+     * Verifies that the first frame is counted, but has no frame time.
+     */
+    @Test
+    void firstFrame() {
+        FrameMetrics metrics = new FrameMetrics();
+        metrics.frameShown();
+        assertThat(metrics.getFrameCount()).isEqualTo(1);
+        assertThat(metrics.getFrameTime(0.0)).isZero();
+
+        metrics.frameShown(20_000_000L);
+        assertThat(metrics.getFrameCount()).isEqualTo(2);
+        assertThat(metrics.getFrameTime(0.0)).isEqualTo(20_000_000L);
+        assertThat(metrics.getFramesPerSecond()).isCloseTo(50.0, within(1e-9));
+    }
+}
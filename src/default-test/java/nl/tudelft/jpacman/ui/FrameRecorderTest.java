@@ -0,0 +1,120 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.MazeGenerator;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests recording rendered frames with a {@link FrameRecorder}.
+ */
+@SuppressWarnings("magicnumber")
+class FrameRecorderTest {
+
+    private OffscreenRenderer renderer;
+    private Level level;
+
+    /**
+     * Generates a small maze with a few ghosts.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new DefaultPointCalculator()), new BoardFactory(sprites));
+        level = new MazeGenerator(3).withGhosts(5).generateLevel(parser, 31, 21);
+        renderer = OffscreenRenderer.forBoard(level.getBoard(), 4);
+    }
+
+    /**
+     * Verifies that every frame captured is written to its own PNG image
+     * with the pixels rendered.
+     *
+     * @param directory
+     *            The directory to write the images to.
+     * @throws IOException
+     *             If the images could not be written or read.
+     */
+    @Test
+    void pngSequence(@TempDir Path directory) throws IOException {
+        FrameRecorder recorder = FrameRecorder.pngSequence(directory, new Dimension(124, 84), 2);
+        for (int i = 0; i < 5; i++) {
+            recorder.capture(renderer.render(level));
+        }
+        recorder.close();
+
+        assertThat(recorder.getCapturedFrames() + recorder.getDroppedFrames()).isEqualTo(5);
+        assertThat(recorder.getEncodedFrames()).isEqualTo(recorder.getCapturedFrames());
+        BufferedImage expected = renderer.getImage();
+        BufferedImage actual = ImageIO.read(directory.resolve("frame-000000.png").toFile());
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                assertThat(actual.getRGB(x, y)).isEqualTo(expected.getRGB(x, y));
+            }
+        }
+    }
+
+    /**
+     * Verifies that the frames captured are written to one animated GIF.
+     *
+     * @param directory
+     *            The directory to write the animation to.
+     * @throws IOException
+     *             If the animation could not be written or read.
+     */
+    @Test
+    void gif(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("game.gif");
+        FrameRecorder recorder = FrameRecorder.gif(file, new Dimension(62, 42), 40);
+        for (int i = 0; i < 3; i++) {
+            recorder.capture(renderer.render(level));
+        }
+        recorder.close();
+
+        ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            reader.setInput(input);
+            assertThat((long) reader.getNumImages(true))
+                .isEqualTo(recorder.getEncodedFrames())
+                .isEqualTo(recorder.getCapturedFrames());
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Verifies that no frames can be captured after closing.
+     *
+     * @param directory
+     *            The directory to write the images to.
+     * @throws IOException
+     *             If the directory could not be created.
+     */
+    @Test
+    void closed(@TempDir Path directory) throws IOException {
+        FrameRecorder recorder = FrameRecorder.pngSequence(directory, new Dimension(8, 8), 1);
+        recorder.close();
+        assertThatThrownBy(() -> recorder.capture(renderer.render(level)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
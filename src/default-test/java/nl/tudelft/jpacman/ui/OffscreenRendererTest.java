@@ -0,0 +1,83 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.MazeGenerator;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests rendering levels with the {@link OffscreenRenderer}.
+ */
+@SuppressWarnings("magicnumber")
+class OffscreenRendererTest {
+
+    private Level level;
+
+    /**
+     * Generates a small maze with a few ghosts.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new DefaultPointCalculator()), new BoardFactory(sprites));
+        level = new MazeGenerator(3).withGhosts(5).generateLevel(parser, 31, 21);
+    }
+
+    /**
+     * Verifies that the image is sized to the board and reused between
+     * frames.
+     */
+    @Test
+    void reusesImage() {
+        OffscreenRenderer renderer = OffscreenRenderer.forBoard(level.getBoard(), 4);
+        BufferedImage image = renderer.render(level);
+        assertThat(image.getWidth()).isEqualTo(124);
+        assertThat(image.getHeight()).isEqualTo(84);
+        assertThat(renderer.render(level)).isSameAs(image);
+    }
+
+    /**
+     * Verifies that rendering in bands gives the same image as rendering in
+     * one go, also when the bands do not divide the rows evenly.
+     */
+    @Test
+    void bandsMatch() {
+        level.getClock().set(1L << 40);
+        BufferedImage whole = new OffscreenRenderer(253, 170).render(level);
+        BufferedImage banded = new OffscreenRenderer(253, 170).withBands(4).render(level);
+        for (int x = 0; x < whole.getWidth(); x++) {
+            for (int y = 0; y < whole.getHeight(); y++) {
+                assertThat(banded.getRGB(x, y)).isEqualTo(whole.getRGB(x, y));
+            }
+        }
+    }
+
+    /**
+     * Verifies that every frame ticks the animation clock of the level, so
+     * animations play without a view on screen.
+     *
+     * @throws InterruptedException
+     *             when interrupted while waiting for the clock to move.
+     */
+    @Test
+    void ticksClock() throws InterruptedException {
+        OffscreenRenderer renderer = OffscreenRenderer.forBoard(level.getBoard(), 4);
+        renderer.render(level);
+        long first = level.getClock().millis();
+        Thread.sleep(5L);
+        renderer.render(level);
+        assertThat(level.getClock().millis()).isGreaterThan(first);
+    }
+}
@@ -0,0 +1,73 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.MazeGenerator;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the {@link RasterRenderer} renders the same pixels as drawing
+ * through a graphics context.
+ */
+@SuppressWarnings("magicnumber")
+class RasterRendererTest {
+
+    private Level level;
+
+    /**
+     * Generates a small maze with a few ghosts, and sets its animation clock
+     * far ahead so the renderers, which tick it, show the same moment.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new DefaultPointCalculator()), new BoardFactory(sprites));
+        level = new MazeGenerator(5).withGhosts(5).generateLevel(parser, 31, 21);
+        level.getClock().set(1L << 40);
+    }
+
+    /**
+     * Verifies the pixels of a whole frame, with margins around the board.
+     */
+    @Test
+    void wholeFrame() {
+        assertSamePixels(new RasterRenderer(253, 170).render(level),
+            new OffscreenRenderer(253, 170).render(level));
+    }
+
+    /**
+     * Verifies the pixels of a frame rendered in patches that do not line
+     * up with the squares.
+     */
+    @Test
+    void patches() {
+        RasterRenderer renderer = new RasterRenderer(253, 170);
+        for (int x = 0; x < 253; x += 37) {
+            for (int y = 0; y < 170; y += 29) {
+                renderer.render(level, new Rectangle(x, y, 37, 29));
+            }
+        }
+        assertSamePixels(renderer.getImage(), new OffscreenRenderer(253, 170).render(level));
+    }
+
+    private static void assertSamePixels(BufferedImage actual, BufferedImage expected) {
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                assertThat(actual.getRGB(x, y)).isEqualTo(expected.getRGB(x, y));
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the output of the {@link TerminalRenderer}.
+ */
+class TerminalRendererTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final TerminalRenderer renderer = new TerminalRenderer(out);
+    private Level level;
+    private Player player;
+
+    /**
+     * Creates a small level with a pellet, a ghost and a player.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new DefaultPointCalculator()), new BoardFactory(sprites));
+        level = parser.parseMap(Lists.newArrayList("#######", "#P.  G#", "#######"));
+        player = new PlayerFactory(sprites).createPacMan();
+        level.registerPlayer(player);
+    }
+
+    private String written() {
+        String text = new String(out.toByteArray(), StandardCharsets.US_ASCII);
+        out.reset();
+        return text;
+    }
+
+    /**
+     * Verifies that the first frame clears the screen and draws the board
+     * with the characters of the map.
+     *
+     * @throws IOException
+     *             Never.
+     */
+    @Test
+    void drawsWholeBoard() throws IOException {
+        renderer.render(level);
+        assertThat(written()).startsWith("\u001b[")
+            .endsWith("#######\r\n#P.  G#\r\n#######\r\n");
+    }
+
+    /**
+     * Verifies that nothing is written when nothing changed.
+     *
+     * @throws IOException
+     *             Never.
+     */
+    @Test
+    void writesNothingUnchanged() throws IOException {
+        renderer.render(level);
+        written();
+        assertThat(renderer.render(level)).isZero();
+        assertThat(written()).isEmpty();
+    }
+
+    /**
+     * Verifies that only the changed cells are written, reaching a cell a
+     * few cells further on by rewriting the cells in between.
+     *
+     * @throws IOException
+     *             Never.
+     */
+    @Test
+    void writesChangesOnly() throws IOException {
+        renderer.render(level);
+        written();
+        player.occupy(level.getBoard().squareAt(3, 1));
+        renderer.render(level);
+        assertThat(written()).isEqualTo("\u001b[2;2H .P");
+    }
+
+    /**
+     * Verifies that the whole board is drawn again after a reset.
+     *
+     * @throws IOException
+     *             Never.
+     */
+    @Test
+    void redrawsAfterReset() throws IOException {
+        renderer.render(level);
+        String first = written();
+        renderer.reset();
+        renderer.render(level);
+        assertThat(written()).isEqualTo(first);
+        assertThat(renderer.getBytesWritten()).isEqualTo(2L * first.length());
+    }
+
+    /**
+     * Verifies that restoring the terminal moves the cursor below the board
+     * and shows it, and that the next frame draws the whole board again.
+     *
+     * @throws IOException
+     *             Never.
+     */
+    @Test
+    void restoresCursor() throws IOException {
+        renderer.render(level);
+        String first = written();
+        renderer.restore();
+        assertThat(written()).isEqualTo("\u001b[4;1H\u001b[?25h");
+        renderer.render(level);
+        assertThat(written()).isEqualTo(first);
+    }
+
+    /**
+     * Verifies that a frame that could not be written is drawn again as a
+     * whole, rather than counted as shown.
+     *
+     * @throws IOException
+     *             Never.
+     */
+    @Test
+    void redrawsAfterFailedWrite() throws IOException {
+        OutputStream broken = new OutputStream() {
+            private boolean failed;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (!failed) {
+                    failed = true;
+                    throw new IOException("broken pipe");
+                }
+                out.write(b);
+            }
+        };
+        TerminalRenderer flaky = new TerminalRenderer(broken);
+        assertThatThrownBy(() -> flaky.render(level)).isInstanceOf(IOException.class);
+        assertThat(flaky.getBytesWritten()).isZero();
+        flaky.render(level);
+        assertThat(written()).startsWith("\u001b[")
+            .endsWith("#######\r\n#P.  G#\r\n#######\r\n");
+    }
+}
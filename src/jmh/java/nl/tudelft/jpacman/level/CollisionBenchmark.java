@@ -0,0 +1,114 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.Blinky;
+import nl.tudelft.jpacman.npc.ghost.Clyde;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+import nl.tudelft.jpacman.points.PointCalculator;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
+import nl.tudelft.jpacman.sprite.EmptySprite;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the collision dispatch of {@link PlayerCollisions} and a
+ * {@link CollisionInteractionMap} on a mix of unit pairs, including pairs
+ * without a handler and inverse pairs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("magicnumber")
+public class CollisionBenchmark {
+
+    /**
+     * The number of collisions per benchmark invocation.
+     */
+    private static final int PAIRS = 8;
+
+    private CollisionMap simple;
+    private CollisionMap interaction;
+    private Unit[] colliders;
+    private Unit[] collidees;
+
+    /**
+     * Creates the two maps with the same handlers, and the units colliding.
+     */
+    @Setup
+    public void setUp() {
+        PointCalculator points = new DefaultPointCalculator();
+        simple = new PlayerCollisions(points);
+
+        CollisionInteractionMap map = new CollisionInteractionMap();
+        map.onCollision(Player.class, Ghost.class, (player, ghost) -> {
+            points.collidedWithAGhost(player, ghost);
+            player.setAlive(false);
+            player.setKiller(ghost);
+        });
+        map.onCollision(Player.class, Pellet.class, (player, pellet) -> {
+            points.consumedAPellet(player, pellet);
+            pellet.leaveSquare();
+        });
+        interaction = map;
+
+        Sprite[] frames = {new EmptySprite()};
+        Player player = new Player(directions(), new AnimatedSprite(frames, 1, false));
+        Ghost blinky = new Blinky(directions());
+        Ghost clyde = new Clyde(directions());
+        Pellet pellet = new Pellet(10, new EmptySprite());
+        colliders = new Unit[] {player, player, blinky, clyde, blinky, pellet, player, clyde};
+        collidees = new Unit[] {pellet, blinky, player, player, clyde, player, clyde, pellet};
+    }
+
+    private static Map<Direction, Sprite> directions() {
+        Map<Direction, Sprite> sprites = new EnumMap<>(Direction.class);
+        for (Direction direction : Direction.values()) {
+            sprites.put(direction, new EmptySprite());
+        }
+        return sprites;
+    }
+
+    private static void collideAll(CollisionMap map, Unit[] colliders, Unit[] collidees) {
+        for (int i = 0; i < PAIRS; i++) {
+            map.collide(colliders[i], collidees[i]);
+        }
+    }
+
+    /**
+     * Dispatches through the instanceof chains of {@link PlayerCollisions}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void playerCollisions() {
+        collideAll(simple, colliders, collidees);
+    }
+
+    /**
+     * Dispatches through the cached tables of a {@link CollisionInteractionMap}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void interactionMap() {
+        collideAll(interaction, colliders, collidees);
+    }
+}
@@ -0,0 +1,160 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the time to create a level from a text map file with the time to
+ * load it from a compiled map file. The cold benchmarks measure the first
+ * load in a fresh JVM, the warm benchmarks measure repeated loads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@SuppressWarnings("magicnumber")
+public class CompiledMapBenchmark {
+
+    /**
+     * The number of rows and columns of the map.
+     */
+    @Param({"64", "512", "2048"})
+    private int size;
+
+    private MapParser parser;
+    private Path directory;
+    private Path text;
+    private Path compiled;
+
+    /**
+     * Writes the map as text and compiles it.
+     *
+     * @throws IOException
+     *             when the map files could not be written.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        PacManSprites sprites = new PacManSprites();
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new DefaultPointCalculator()), new BoardFactory(sprites));
+
+        Random random = new Random(size);
+        String squares = "#. ";
+        List<String> lines = new ArrayList<>(size);
+        for (int y = 0; y < size; y++) {
+            StringBuilder line = new StringBuilder(size);
+            for (int x = 0; x < size; x++) {
+                line.append(squares.charAt(random.nextInt(squares.length())));
+            }
+            lines.add(line.toString());
+        }
+        lines.set(0, 'P' + lines.get(0).substring(1));
+
+        directory = Files.createTempDirectory("jpacman-maps");
+        text = Files.write(directory.resolve("map.txt"), lines, StandardCharsets.US_ASCII);
+        compiled = directory.resolve("map.jpm");
+        MapCompiler.compile(text, compiled);
+    }
+
+    /**
+     * Removes the map files.
+     *
+     * @throws IOException
+     *             when the map files could not be removed.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(text);
+        Files.deleteIfExists(compiled);
+        Files.deleteIfExists(directory);
+    }
+
+    private Level parseText() throws IOException {
+        try (InputStream in = Files.newInputStream(text)) {
+            return parser.parseMap(in);
+        }
+    }
+
+    /**
+     * Parses the text map file.
+     *
+     * @return The parsed level.
+     * @throws IOException
+     *             when the map file could not be read.
+     */
+    @Benchmark
+    public Level warmText() throws IOException {
+        return parseText();
+    }
+
+    /**
+     * Loads the compiled map file.
+     *
+     * @return The loaded level.
+     * @throws IOException
+     *             when the map file could not be mapped.
+     */
+    @Benchmark
+    public Level warmCompiled() throws IOException {
+        return parser.parseCompiledMap(compiled);
+    }
+
+    /**
+     * Parses the text map file once in a fresh JVM.
+     *
+     * @return The parsed level.
+     * @throws IOException
+     *             when the map file could not be read.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 10, jvmArgs = {"-Xmx4g"})
+    public Level coldText() throws IOException {
+        return parseText();
+    }
+
+    /**
+     * Loads the compiled map file once in a fresh JVM.
+     *
+     * @return The loaded level.
+     * @throws IOException
+     *             when the map file could not be mapped.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 10, jvmArgs = {"-Xmx4g"})
+    public Level coldCompiled() throws IOException {
+        return parser.parseCompiledMap(compiled);
+    }
+}
@@ -0,0 +1,120 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of {@link MapParser} on square maps of walls,
+ * pellets and empty squares. The <code>bytes</code> counter is reported in
+ * bytes per second; divide it by 10^6 for MB/s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@SuppressWarnings("magicnumber")
+public class MapParserBenchmark {
+
+    /**
+     * The number of rows and columns of the parsed map.
+     */
+    @Param({"64", "512", "2048"})
+    private int size;
+
+    private MapParser parser;
+    private byte[] bytes;
+    private List<String> lines;
+
+    /**
+     * The number of map bytes parsed, reported per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+
+        /**
+         * The bytes parsed in the current iteration.
+         */
+        public long bytes;
+    }
+
+    /**
+     * Generates the map, both as bytes and as lines.
+     */
+    @Setup
+    public void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new DefaultPointCalculator()), new BoardFactory(sprites));
+
+        Random random = new Random(size);
+        String squares = "#. ";
+        lines = new ArrayList<>(size);
+        StringBuilder text = new StringBuilder(size * (size + 1));
+        for (int y = 0; y < size; y++) {
+            StringBuilder line = new StringBuilder(size);
+            for (int x = 0; x < size; x++) {
+                line.append(squares.charAt(random.nextInt(squares.length())));
+            }
+            if (y == 0) {
+                line.setCharAt(0, 'P');
+            }
+            lines.add(line.toString());
+            text.append(line).append('\n');
+        }
+        bytes = text.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Parses the map from a stream of bytes.
+     *
+     * @param counter
+     *            Counts the parsed bytes.
+     * @return The parsed level.
+     * @throws IOException
+     *             never, the stream is in memory.
+     */
+    @Benchmark
+    public Level stream(Bytes counter) throws IOException {
+        counter.bytes += bytes.length;
+        return parser.parseMap(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Parses the map from a list of lines.
+     *
+     * @param counter
+     *            Counts the parsed bytes.
+     * @return The parsed level.
+     */
+    @Benchmark
+    public Level lines(Bytes counter) {
+        counter.bytes += bytes.length;
+        return parser.parseMap(lines);
+    }
+}
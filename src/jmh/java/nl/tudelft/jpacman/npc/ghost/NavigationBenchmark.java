@@ -0,0 +1,102 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.board.UnitKind;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.MazeGenerator;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how {@link Navigation} and the pellet count of a {@link Level}
+ * scale with the size of the board, on mazes from the
+ * {@link MazeGenerator} with a few loops.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@SuppressWarnings("magicnumber")
+public class NavigationBenchmark {
+
+    /**
+     * The number of rows and columns of the maze.
+     */
+    @Param({"23", "101", "501"})
+    private int size;
+
+    private Level level;
+    private Square corner;
+    private Square oppositeCorner;
+    private Unit traveller;
+
+    /**
+     * Generates the maze and picks two corners far apart.
+     */
+    @Setup
+    public void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        GhostFactory ghosts = new GhostFactory(sprites);
+        MapParser parser = new MapParser(new LevelFactory(sprites, ghosts,
+            new DefaultPointCalculator()), new BoardFactory(sprites));
+        level = new MazeGenerator(size).withLoops(0.05).generateLevel(parser, size, size);
+        Board board = level.getBoard();
+        corner = board.squareAt(1, 1);
+        oppositeCorner = board.squareAt(size - 2, size - 2);
+        traveller = ghosts.createBlinky();
+    }
+
+    /**
+     * Finds the shortest path between two opposite corners of the maze.
+     *
+     * @return The path.
+     */
+    @Benchmark
+    public List<Direction> shortestPath() {
+        return Navigation.shortestPath(corner, oppositeCorner, traveller);
+    }
+
+    /**
+     * Searches the whole maze for the nearest player, of which there are
+     * none.
+     *
+     * @return <code>null</code>.
+     */
+    @Benchmark
+    public Unit searchWholeMaze() {
+        return Navigation.findNearest(UnitKind.PLAYER, corner);
+    }
+
+    /**
+     * Counts the pellets left on the board.
+     *
+     * @return The number of pellets.
+     */
+    @Benchmark
+    public int remainingPellets() {
+        return level.remainingPellets();
+    }
+}
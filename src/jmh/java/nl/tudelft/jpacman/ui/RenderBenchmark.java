@@ -0,0 +1,90 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.MazeGenerator;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how many frames per second the {@link OffscreenRenderer} renders
+ * of mazes from the {@link MazeGenerator}, with a ghost per four rows, on a
+ * single thread and in bands across the available cores.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g", "-Djava.awt.headless=true"})
+@SuppressWarnings("magicnumber")
+public class RenderBenchmark {
+
+    /**
+     * The width and height of a square, in pixels.
+     */
+    private static final int SQUARE_SIZE = 8;
+
+    /**
+     * The number of rows and columns of the maze.
+     */
+    @Param({"23", "101", "401"})
+    private int size;
+
+    /**
+     * The number of bands rendered in parallel, where 0 means one per
+     * available core.
+     */
+    @Param({"1", "0"})
+    private int bands;
+
+    private Level level;
+    private OffscreenRenderer renderer;
+
+    /**
+     * Generates the maze and renders it once, so the background is cached.
+     */
+    @Setup
+    public void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites),
+            new DefaultPointCalculator()), new BoardFactory(sprites));
+        level = new MazeGenerator(size).withLoops(0.05).withGhosts(size / 4)
+            .generateLevel(parser, size, size);
+        int bandCount = bands;
+        if (bandCount == 0) {
+            bandCount = Runtime.getRuntime().availableProcessors();
+        }
+        renderer = OffscreenRenderer.forBoard(level.getBoard(), SQUARE_SIZE)
+            .withBands(bandCount);
+        renderer.render(level);
+    }
+
+    /**
+     * Renders a frame.
+     *
+     * @return The image rendered into.
+     */
+    @Benchmark
+    public BufferedImage renderFrame() {
+        return renderer.render(level);
+    }
+}
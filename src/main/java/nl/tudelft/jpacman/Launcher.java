@@ -4,6 +4,8 @@ import nl.tudelft.jpacman.board.BoardFactory;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.game.Game;
 import nl.tudelft.jpacman.game.GameFactory;
+import nl.tudelft.jpacman.game.InputLatency;
+import nl.tudelft.jpacman.game.InputQueue;
 import nl.tudelft.jpacman.level.*;
 import nl.tudelft.jpacman.npc.ghost.GhostFactory;
 import nl.tudelft.jpacman.points.PointCalculator;
@@ -28,10 +30,17 @@ public class Launcher {
     private static final PacManSprites SPRITE_STORE = new PacManSprites();
 
     public static final String DEFAULT_MAP = "/board.txt";
+
+    /**
+     * The system property that, when <code>true</code>, makes the game print
+     * the input latency histograms of {@link InputLatency} on exit.
+     */
+    public static final String LATENCY_PROPERTY = "jpacman.latency";
     private String levelMap = DEFAULT_MAP;
 
     private PacManUI pacManUI;
     private Game game;
+    private InputQueue inputQueue;
 
     /**
      * @return The game object this launcher will start when {@link #launch()}
@@ -41,6 +50,14 @@ public class Launcher {
         return game;
     }
 
+    /**
+     * @return The queue the player's moves go through once the game is
+     *         launched, or <code>null</code> before.
+     */
+    public InputQueue getInputQueue() {
+        return inputQueue;
+    }
+
     /**
      * The map file used to populate the level.
      *
@@ -146,7 +163,9 @@ public class Launcher {
     }
 
     /**
-     * Adds key events UP, DOWN, LEFT and RIGHT to a game.
+     * Adds key events UP, DOWN, LEFT and RIGHT to a game. The moves go
+     * through the {@link InputQueue}, so key presses never wait for the
+     * level.
      *
      * @param builder
      *            The {@link PacManUiBuilder} that will provide the UI.
@@ -160,8 +179,8 @@ public class Launcher {
 
     private Action moveTowardsDirection(Direction direction) {
         return () -> {
-            assert game != null;
-            getGame().move(getSinglePlayer(getGame()), direction);
+            assert inputQueue != null;
+            inputQueue.submit(direction);
         };
     }
 
@@ -178,6 +197,8 @@ public class Launcher {
      */
     public void launch() {
         makeGame();
+        inputQueue = new InputQueue(getGame(), getSinglePlayer(getGame()));
+        inputQueue.start(InputQueue.DEFAULT_TICK);
         PacManUiBuilder builder = new PacManUiBuilder().withDefaultButtons();
         addSinglePlayerKeys(builder);
         pacManUI = builder.build(getGame());
@@ -185,23 +206,30 @@ public class Launcher {
     }
 
     /**
-     * Disposes of the UI. For more information see
-     * {@link javax.swing.JFrame#dispose()}.
+     * Stops the input queue and the rendering of the game, and disposes of
+     * the UI. For more information see {@link javax.swing.JFrame#dispose()}.
      *
      * Precondition: The game was launched first.
      */
     public void dispose() {
         assert pacManUI != null;
+        inputQueue.stop();
         pacManUI.dispose();
     }
 
     /**
-     * Main execution method for the Launcher.
+     * Main execution method for the Launcher. Prints the input latency
+     * histograms on exit if the {@value #LATENCY_PROPERTY} system property is
+     * <code>true</code>.
      *
      * @param args
      *            The command line arguments - which are ignored.
      */
     public static void main(String[] args)  {
+        if (Boolean.getBoolean(LATENCY_PROPERTY)) {
+            Runtime.getRuntime().addShutdownHook(
+                new Thread(() -> InputLatency.shared().dump(System.err)));
+        }
         new Launcher().launch();
     }
 }
@@ -1,30 +1,191 @@
 package nl.tudelft.jpacman.board;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * A top-down view of a matrix of {@link Square}s.
  *
+ * <p>A board either wraps a complete grid of squares, or creates its squares
+ * when they are first asked for, from a {@link BoardTopology} shared with
+ * other boards of the same map. The latter keep the squares in tiles of
+ * {@value #TILE_SIZE} by {@value #TILE_SIZE} that are created on demand as
+ * well, so a board costs memory for the squares units, AI and rendering
+ * actually touch rather than for its whole area.</p>
+ *
  * @author Jeroen Roosen 
  */
 public class Board {
 
     /**
-     * The grid of squares with board[x][y] being the square at column x, row y.
+     * The number of rows and columns of squares in a tile of a board that
+     * creates its squares on demand.
+     */
+    private static final int TILE_SIZE = 16;
+
+    /**
+     * The grid of squares with board[x][y] being the square at column x, row y,
+     * or <code>null</code> for boards that create their squares on demand.
      */
     private final Square[][] board;
 
+    /**
+     * The size and neighbours of the squares, possibly shared with other
+     * boards from the same map, or <code>null</code> for chunked boards.
+     */
+    private final BoardTopology topology;
+
+    /**
+     * Creates the squares of a board without a grid, or <code>null</code> if
+     * the board has a grid or is chunked.
+     */
+    private final ChunkedBoard.SquareSource source;
+
+    /**
+     * The tiles of squares created so far, row by row, for boards that
+     * create their squares from {@link #source}. Each tile holds its squares
+     * row by row, with <code>null</code> for squares not created yet.
+     */
+    private final AtomicReferenceArray<AtomicReferenceArray<Square>> tiles;
+
+    /**
+     * The number of tiles in a row of {@link #tiles}.
+     */
+    private final int tilesAcross;
+
+    /**
+     * The squares of this board with at least one occupant, kept up to date
+     * by the squares themselves so units can be found without visiting every
+     * square. The set may be read while units move.
+     */
+    private final Set<Square> occupiedSquares = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The layers of units on this board that are not occupants of its
+     * squares.
+     */
+    private final List<UnitLayer> layers = new CopyOnWriteArrayList<>();
+
+    /**
+     * The number of columns.
+     */
+    private final int width;
+
+    /**
+     * The number of rows.
+     */
+    private final int height;
+
+    /**
+     * Creates a new board with its own topology.
+     *
+     * @param grid
+     *            The grid of squares with grid[x][y] being the square at column
+     *            x, row y.
+     */
+    Board(Square[][] grid) {
+        this(grid, new BoardTopology(grid), false);
+    }
+
+    /**
+     * Creates a new board.
+     *
+     * @param grid
+     *            The grid of squares with grid[x][y] being the square at column
+     *            x, row y.
+     * @param topology
+     *            The topology of the grid.
+     * @throws IllegalArgumentException
+     *             when the grid does not have the size of the topology, or
+     *             its squares are not walkable exactly where the topology
+     *             says so.
+     */
+    Board(Square[][] grid, BoardTopology topology) {
+        this(grid, topology, true);
+    }
+
     /**
      * Creates a new board.
      *
      * @param grid
      *            The grid of squares with grid[x][y] being the square at column
      *            x, row y.
+     * @param topology
+     *            The topology of the grid.
+     * @param check
+     *            Whether the topology may not have been created from the
+     *            grid, so the grid has to be checked against it.
      */
     @SuppressWarnings("PMD.ArrayIsStoredDirectly")
-    Board(Square[][] grid) {
+    private Board(Square[][] grid, BoardTopology topology, boolean check) {
         assert grid != null;
         this.board = grid;
+        this.topology = topology;
+        this.source = null;
+        this.tiles = null;
+        this.tilesAcross = 0;
+        this.width = grid.length;
+        this.height = grid[0].length;
         assert invariant() : "Initial grid cannot contain null squares";
+        if (check && !topology.fits(grid)) {
+            throw new IllegalArgumentException("The grid does not match the topology.");
+        }
+        for (int x = 0; x < getWidth(); x++) {
+            for (int y = 0; y < getHeight(); y++) {
+                grid[x][y].attach(this, indexOf(x, y));
+            }
+        }
+    }
+
+    /**
+     * Creates a new board that creates its squares when they are first asked
+     * for.
+     *
+     * @param topology
+     *            The topology of the board, possibly shared with other boards
+     *            of the same map.
+     * @param squares
+     *            Creates the squares, which must be walkable exactly where
+     *            the topology says so.
+     */
+    Board(BoardTopology topology, ChunkedBoard.SquareSource squares) {
+        assert topology != null && squares != null;
+        this.board = null;
+        this.topology = topology;
+        this.source = squares;
+        this.width = topology.getWidth();
+        this.height = topology.getHeight();
+        this.tilesAcross = (width + TILE_SIZE - 1) / TILE_SIZE;
+        this.tiles = new AtomicReferenceArray<>(
+            tilesAcross * ((height + TILE_SIZE - 1) / TILE_SIZE));
+    }
+
+    /**
+     * Creates a new board without a grid or topology, for boards that create
+     * their squares in chunks. Such boards override {@link #squareAt(int, int)},
+     * {@link #neighbourOf(Square, Direction)} and
+     * {@link #sameComponent(Square, Square)}.
+     *
+     * @param width
+     *            The number of columns.
+     * @param height
+     *            The number of rows.
+     */
+    Board(int width, int height) {
+        assert width > 0 && height > 0;
+        assert (long) width * height <= Integer.MAX_VALUE : "Square indices must fit an int";
+        this.board = null;
+        this.topology = null;
+        this.source = null;
+        this.tiles = null;
+        this.tilesAcross = 0;
+        this.width = width;
+        this.height = height;
     }
 
     /**
@@ -32,6 +193,9 @@ public class Board {
      * @return false if any square on the board is null.
      */
     protected final boolean invariant() {
+        if (board == null) {
+            return true;
+        }
         for (Square[] row : board) {
             for (Square square : row) {
                 if (square == null) {
@@ -48,7 +212,7 @@ public class Board {
      * @return The width of this board.
      */
     public int getWidth() {
-        return board.length;
+        return width;
     }
 
     /**
@@ -57,7 +221,7 @@ public class Board {
      * @return The height of this board.
      */
     public int getHeight() {
-        return board[0].length;
+        return height;
     }
 
     /**
@@ -74,11 +238,220 @@ public class Board {
      */
     public Square squareAt(int x, int y) {
         assert withinBorders(x, y);
+        if (board == null) {
+            return createdSquareAt(x, y);
+        }
         Square result = board[x][y];
         assert result != null : "Follows from invariant.";
         return result;
     }
 
+    /**
+     * Returns the square at the given position of a board without a grid,
+     * creating it and its tile if they do not exist yet. Squares are created
+     * once, even when several threads ask for them at the same time.
+     *
+     * @param x
+     *            The <code>x</code> position (column) of the square.
+     * @param y
+     *            The <code>y</code> position (row) of the square.
+     * @return The square at the given position.
+     */
+    private Square createdSquareAt(int x, int y) {
+        int tileNumber = y / TILE_SIZE * tilesAcross + x / TILE_SIZE;
+        AtomicReferenceArray<Square> tile = tiles.get(tileNumber);
+        if (tile == null) {
+            tiles.compareAndSet(tileNumber, null,
+                new AtomicReferenceArray<>(TILE_SIZE * TILE_SIZE));
+            tile = tiles.get(tileNumber);
+        }
+        int slot = y % TILE_SIZE * TILE_SIZE + x % TILE_SIZE;
+        Square square = tile.get(slot);
+        if (square != null) {
+            return square;
+        }
+        synchronized (tile) {
+            square = tile.get(slot);
+            if (square == null) {
+                square = source.createSquare(x, y);
+                int index = indexOf(x, y);
+                if (square.isAccessibleTo(null) != topology.isWalkable(index)) {
+                    throw new IllegalStateException("The square at " + x + "," + y
+                        + " does not match the topology.");
+                }
+                square.attach(this, index);
+                tile.set(slot, square);
+            }
+            return square;
+        }
+    }
+
+    /**
+     * Returns the square next to a square of this board, wrapping around the
+     * borders.
+     *
+     * @param square
+     *            A square of this board.
+     * @param direction
+     *            The direction of the neighbour.
+     * @return The square next to the given square in the given direction.
+     */
+    Square neighbourOf(Square square, Direction direction) {
+        int index = topology.neighbour(square.getIndex(), direction);
+        return squareAt(index % getWidth(), index / getWidth());
+    }
+
+    /**
+     * Keeps the squares a unit moves between valid until the move is over,
+     * for boards that may drop squares that are not occupied. Every call is
+     * followed by a call to {@link #releaseMove(Square, Direction)} with the
+     * same arguments. Boards that keep all their squares do nothing.
+     *
+     * @param location
+     *            The square of this board the unit moves from.
+     * @param direction
+     *            The direction the unit moves in.
+     */
+    public void holdMove(Square location, Direction direction) {
+        // squares of this board are never dropped
+    }
+
+    /**
+     * Ends a move started with {@link #holdMove(Square, Direction)}.
+     *
+     * @param location
+     *            The square of this board the unit moved from.
+     * @param direction
+     *            The direction the unit moved in.
+     */
+    public void releaseMove(Square location, Direction direction) {
+        // squares of this board are never dropped
+    }
+
+    /**
+     * Determines whether a unit can walk from one square to another, without
+     * searching for a path. Like {@link BoardTopology#component(int)} this
+     * assumes that squares are accessible to all units alike.
+     *
+     * @param from
+     *            A square of this board.
+     * @param to
+     *            A square of this board.
+     * @return <code>true</code> iff both squares can be walked on and are
+     *         connected by walkable squares.
+     */
+    public boolean sameComponent(Square from, Square to) {
+        int component = topology.component(from.getIndex());
+        return component >= 0 && component == topology.component(to.getIndex());
+    }
+
+    /**
+     * Counts the units of the given kind on this board, visiting only the
+     * occupied squares.
+     *
+     * @param kind
+     *            The kind of units to count.
+     * @return The number of units of the given kind on this board.
+     */
+    public int countOccupants(UnitKind kind) {
+        int count = 0;
+        for (Square square : occupiedSquares) {
+            count += square.countOccupants(kind);
+        }
+        return count;
+    }
+
+    /**
+     * Adds a layer of units that are not occupants of the squares of this
+     * board, so {@link #placeLayerOccupant(Square, Class)} finds them.
+     *
+     * @param layer
+     *            The layer to add.
+     */
+    public void addLayer(UnitLayer layer) {
+        assert layer != null;
+        layers.add(layer);
+    }
+
+    /**
+     * Puts a unit of the given type from the layers of this board on the
+     * square as an occupant, if a layer has one there.
+     *
+     * @param square
+     *            A square of this board.
+     * @param type
+     *            The type of unit asked for.
+     * @param <T>
+     *            The type of unit asked for.
+     * @return The unit that now occupies the square, or <code>null</code> if
+     *         no layer has a unit of the given type on the square.
+     */
+    public <T extends Unit> T placeLayerOccupant(Square square, Class<T> type) {
+        for (UnitLayer layer : layers) {
+            Unit unit = layer.placeOccupant(square, type);
+            if (unit != null) {
+                return type.cast(unit);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the squares of this board that have at least one occupant, in
+     * no particular order. The collection is a live view that may be
+     * iterated while units move; it reflects some state of the board during
+     * the iteration.
+     *
+     * @return The occupied squares of this board.
+     */
+    public Collection<Square> getOccupiedSquares() {
+        return Collections.unmodifiableSet(occupiedSquares);
+    }
+
+    /**
+     * Called by a square of this board when its first occupant arrives.
+     *
+     * @param square
+     *            The square that became occupied.
+     */
+    void occupied(Square square) {
+        occupiedSquares.add(square);
+    }
+
+    /**
+     * Called by a square of this board when its last occupant leaves.
+     *
+     * @param square
+     *            The square that became empty.
+     */
+    void vacated(Square square) {
+        occupiedSquares.remove(square);
+    }
+
+    /**
+     * @return The size and neighbours of the squares of this board, which
+     *         may be shared with other boards from the same map, or
+     *         <code>null</code> if the board creates its squares in chunks.
+     */
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Returns the index of the square at the given <code>x,y</code> position,
+     * as returned by {@link Square#getIndex()}.
+     *
+     * @param x
+     *            The <code>x</code> position (column) of the square.
+     * @param y
+     *            The <code>y</code> position (row) of the square.
+     * @return The index of the square at the given position.
+     */
+    public int indexOf(int x, int y) {
+        assert withinBorders(x, y);
+        return y * getWidth() + x;
+    }
+
     /**
      * Determines whether the given <code>x,y</code> position is on this board.
      *
@@ -28,7 +28,9 @@ public class BoardFactory {
     }
 
     /**
-     * Creates a new board from a grid of cells and connects it.
+     * Creates a new board from a grid of cells. The cells are connected
+     * through the board, with the cells on the borders connected to the cells
+     * on the opposite borders.
      *
      * @param grid
      *            The square grid of cells, in which grid[x][y] corresponds to
@@ -37,24 +39,67 @@ public class BoardFactory {
      */
     public Board createBoard(Square[][] grid) {
         assert grid != null;
+        return new Board(grid);
+    }
 
-        Board board = new Board(grid);
-
-        int width = board.getWidth();
-        int height = board.getHeight();
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                Square square = grid[x][y];
-                for (Direction dir : Direction.values()) {
-                    int dirX = (width + x + dir.getDeltaX()) % width;
-                    int dirY = (height + y + dir.getDeltaY()) % height;
-                    Square neighbour = grid[dirX][dirY];
-                    square.link(neighbour, dir);
-                }
-            }
-        }
+    /**
+     * Creates a new board from a grid of cells, sharing the topology of
+     * another board from the same map.
+     *
+     * @param grid
+     *            The square grid of cells, in which grid[x][y] corresponds to
+     *            the square at position x,y.
+     * @param topology
+     *            The topology of the other board, which must have the same
+     *            size and walkable squares as the grid.
+     * @return A new board, wrapping a grid of connected cells.
+     * @throws IllegalArgumentException
+     *             when the grid does not match the topology.
+     */
+    public Board createBoard(Square[][] grid, BoardTopology topology) {
+        assert grid != null;
+        return new Board(grid, topology);
+    }
 
-        return board;
+    /**
+     * Creates a new board that creates its squares when they are first asked
+     * for, so it only costs memory for the squares that are used. The
+     * topology may be shared with other boards of the same map.
+     *
+     * @param topology
+     *            The topology of the board.
+     * @param source
+     *            Creates the squares of the board, for instance with
+     *            {@link #createGround()} and {@link #createWall()}, walkable
+     *            exactly where the topology says so.
+     * @return A new board without any squares created yet.
+     */
+    public Board createBoard(BoardTopology topology, ChunkedBoard.SquareSource source) {
+        assert topology != null && source != null;
+        return new Board(topology, source);
+    }
+
+    /**
+     * Creates a new board that creates its squares on demand, in chunks.
+     *
+     * @param width
+     *            The number of columns.
+     * @param height
+     *            The number of rows.
+     * @param chunkSize
+     *            The number of rows and columns of squares in a chunk.
+     * @param maximumSquares
+     *            The number of squares the board may keep loaded before it
+     *            drops the least recently used chunks.
+     * @param source
+     *            Creates the squares of the board, for instance with
+     *            {@link #createGround()} and {@link #createWall()}.
+     * @return A new chunked board without any squares loaded.
+     */
+    public ChunkedBoard createChunkedBoard(int width, int height, int chunkSize,
+                                           long maximumSquares,
+                                           ChunkedBoard.SquareSource source) {
+        return new ChunkedBoard(width, height, chunkSize, maximumSquares, source);
     }
 
     /**
@@ -0,0 +1,211 @@
+package nl.tudelft.jpacman.board;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * The parts of a {@link Board} that never change: its size, which squares can
+ * be walked on and which squares are next to each other. Boards created from
+ * the same map can share one topology, so only their squares and occupants
+ * are kept per board.
+ *
+ * <p>Squares are identified by their index, as in {@link Square#getIndex()}.
+ * Neighbours are computed instead of stored: the square next to a square on
+ * the border of the board is the square on the opposite border.</p>
+ *
+ * <p>Walkable squares are labelled with their connected component once, when
+ * the topology is created, so whether one square can be reached from another
+ * is known without searching. Components assume that squares are accessible
+ * to all units alike, as is the case for walls and ground, and do not take
+ * neighbours set with {@link Square#link(Square, Direction)} into
+ * account.</p>
+ */
+public final class BoardTopology {
+
+    private static final int WORD_SIZE = Long.SIZE;
+
+    /**
+     * The number of columns.
+     */
+    private final int width;
+
+    /**
+     * The number of rows.
+     */
+    private final int height;
+
+    /**
+     * Bit <code>i</code> is set iff the square with index <code>i</code> can
+     * be walked on.
+     */
+    private final long[] walkable;
+
+    /**
+     * The component of every square, or -1 for squares that cannot be walked
+     * on.
+     */
+    private final int[] components;
+
+    /**
+     * The number of components.
+     */
+    private final int componentCount;
+
+    /**
+     * Creates the topology of a grid of squares. A square can be walked on if
+     * it is accessible to units in general, as told by
+     * {@link Square#isAccessibleTo(Unit)} with a <code>null</code> unit.
+     *
+     * @param grid
+     *            The grid of squares with grid[x][y] being the square at
+     *            column x, row y.
+     */
+    public BoardTopology(Square[][] grid) {
+        this(grid.length, grid[0].length,
+            index -> grid[index % grid.length][index / grid.length].isAccessibleTo(null));
+    }
+
+    /**
+     * Creates the topology of a board without its squares.
+     *
+     * @param width
+     *            The number of columns.
+     * @param height
+     *            The number of rows.
+     * @param isWalkable
+     *            Tells for the index of every square whether units can walk
+     *            on it.
+     */
+    public BoardTopology(int width, int height, IntPredicate isWalkable) {
+        assert width > 0 && height > 0;
+        this.width = width;
+        this.height = height;
+        this.walkable = new long[(width * height + WORD_SIZE - 1) / WORD_SIZE];
+        for (int index = 0; index < width * height; index++) {
+            if (isWalkable.test(index)) {
+                walkable[index / WORD_SIZE] |= 1L << index;
+            }
+        }
+        this.components = new int[width * height];
+        this.componentCount = labelComponents();
+    }
+
+    /**
+     * Labels every walkable square with its component with a flood fill from
+     * every square that was not labelled yet.
+     *
+     * @return The number of components.
+     */
+    private int labelComponents() {
+        Arrays.fill(components, -1);
+        int[] queue = new int[components.length];
+        int count = 0;
+        for (int start = 0; start < components.length; start++) {
+            if (components[start] >= 0 || !isWalkable(start)) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            components[start] = count;
+            queue[tail++] = start;
+            while (head < tail) {
+                int index = queue[head++];
+                for (Direction direction : Direction.values()) {
+                    int next = neighbour(index, direction);
+                    if (components[next] < 0 && isWalkable(next)) {
+                        components[next] = count;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of columns.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Determines whether units can walk on the square with the given index.
+     *
+     * @param index
+     *            The index of the square.
+     * @return <code>true</code> iff the square is accessible to units.
+     */
+    public boolean isWalkable(int index) {
+        return (walkable[index / WORD_SIZE] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the connected component of a square. Two walkable squares are
+     * in the same component iff a unit can walk from one to the other.
+     *
+     * @param index
+     *            The index of the square.
+     * @return The component of the square, from 0 up to
+     *         {@link #getComponentCount()}, or -1 if the square cannot be
+     *         walked on.
+     */
+    public int component(int index) {
+        return components[index];
+    }
+
+    /**
+     * @return The number of connected components of walkable squares.
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Returns the index of the square next to a square, wrapping around the
+     * borders of the board.
+     *
+     * @param index
+     *            The index of the square.
+     * @param direction
+     *            The direction of the neighbour.
+     * @return The index of the neighbour in the given direction.
+     */
+    public int neighbour(int index, Direction direction) {
+        int x = (width + index % width + direction.getDeltaX()) % width;
+        int y = (height + index / width + direction.getDeltaY()) % height;
+        return y * width + x;
+    }
+
+    /**
+     * Determines whether a grid fits this topology.
+     *
+     * @param grid
+     *            The grid of squares with grid[x][y] being the square at
+     *            column x, row y.
+     * @return <code>true</code> iff the grid has the size of this topology,
+     *         and its squares are walkable exactly where this topology says
+     *         so.
+     */
+    boolean fits(Square[][] grid) {
+        if (grid.length != width || grid[0].length != height) {
+            return false;
+        }
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (grid[x][y].isAccessibleTo(null) != isWalkable(y * width + x)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,346 @@
+package nl.tudelft.jpacman.board;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A board that creates its squares on demand, in square chunks of a fixed
+ * size, for worlds too large to keep as a full grid. Chunks are created when
+ * one of their squares is asked for, and the least recently used chunks are
+ * dropped once more squares are loaded than the budget allows. Chunks with
+ * occupied squares or {@link #pin(Square) pinned} squares are never dropped,
+ * so units never lose their square.
+ *
+ * <p>Neighbours are looked up through {@link #squareAt(int, int)} when they
+ * are asked for, so a chunk on the other side of a chunk border is only
+ * loaded once a unit or search actually crosses it. Squares of dropped chunks
+ * are created anew when they are needed again, so callers must not keep
+ * squares of this board around without pinning them or occupying them. A
+ * square that is about to be occupied is the most recently used square, so
+ * it is only dropped if every other loaded chunk is in use.</p>
+ *
+ * <p>Components are not labelled for chunked boards, since that would mean
+ * loading the whole world; {@link #sameComponent(Square, Square)} only tells
+ * whether both squares can be walked on.</p>
+ */
+public class ChunkedBoard extends Board {
+
+    /**
+     * Creates the squares of a chunked board, or of a board that creates its
+     * squares on demand.
+     */
+    @FunctionalInterface
+    public interface SquareSource {
+
+        /**
+         * Creates the square at the given position. Every call must create a
+         * new square, with the same terrain for the same position.
+         *
+         * @param x
+         *            The <code>x</code> position (column) of the square.
+         * @param y
+         *            The <code>y</code> position (row) of the square.
+         * @return A new square for the position.
+         */
+        Square createSquare(int x, int y);
+    }
+
+    /**
+     * The initial capacity of the chunk table.
+     */
+    private static final int INITIAL_CHUNKS = 16;
+
+    /**
+     * The load factor of the chunk table.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The number of rows and columns of squares in a chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * The number of chunks in a row of chunks.
+     */
+    private final int chunksAcross;
+
+    /**
+     * The number of squares that may be loaded before chunks are dropped.
+     */
+    private final long maximumSquares;
+
+    /**
+     * Creates the squares of newly loaded chunks.
+     */
+    private final SquareSource source;
+
+    /**
+     * The loaded chunks by chunk number, least recently used first. A chunk
+     * holds its squares row by row; squares beyond the border of the board
+     * are <code>null</code>.
+     */
+    private final Map<Integer, Square[]> chunks =
+        new LinkedHashMap<>(INITIAL_CHUNKS, LOAD_FACTOR, true);
+
+    /**
+     * The chunk numbers of chunks with pinned squares.
+     */
+    private final Set<Integer> pinned = new HashSet<>();
+
+    /**
+     * The number of moves in progress from or into each chunk, by chunk
+     * number. Chunks with moves in progress are not dropped.
+     */
+    private final Map<Integer, Integer> held = new HashMap<>();
+
+    /**
+     * The number of squares in the loaded chunks.
+     */
+    private long loadedSquares;
+
+    /**
+     * The number of chunks loaded so far.
+     */
+    private long loadCount;
+
+    /**
+     * The number of chunks dropped so far.
+     */
+    private long evictionCount;
+
+    /**
+     * Creates a new chunked board without any chunks loaded.
+     *
+     * @param width
+     *            The number of columns.
+     * @param height
+     *            The number of rows.
+     * @param chunkSize
+     *            The number of rows and columns of squares in a chunk.
+     * @param maximumSquares
+     *            The number of squares that may be loaded before chunks are
+     *            dropped.
+     * @param source
+     *            Creates the squares of newly loaded chunks.
+     */
+    ChunkedBoard(int width, int height, int chunkSize, long maximumSquares,
+                 SquareSource source) {
+        super(width, height);
+        assert chunkSize > 0;
+        this.chunkSize = chunkSize;
+        this.chunksAcross = (width + chunkSize - 1) / chunkSize;
+        this.maximumSquares = maximumSquares;
+        this.source = source;
+    }
+
+    @Override
+    public synchronized Square squareAt(int x, int y) {
+        assert withinBorders(x, y);
+        Square[] chunk = chunk(chunkNumber(x, y));
+        return chunk[(y % chunkSize) * chunkSize + x % chunkSize];
+    }
+
+    @Override
+    Square neighbourOf(Square square, Direction direction) {
+        int index = neighbourIndex(square, direction);
+        return squareAt(index % getWidth(), index / getWidth());
+    }
+
+    /**
+     * Computes the index of the square next to a square, wrapping around the
+     * borders, without loading it.
+     *
+     * @param square
+     *            A square of this board.
+     * @param direction
+     *            The direction of the neighbour.
+     * @return The index of the neighbour.
+     */
+    private int neighbourIndex(Square square, Direction direction) {
+        int index = square.getIndex();
+        int x = (getWidth() + index % getWidth() + direction.getDeltaX()) % getWidth();
+        int y = (getHeight() + index / getWidth() + direction.getDeltaY()) % getHeight();
+        return indexOf(x, y);
+    }
+
+    @Override
+    public boolean sameComponent(Square from, Square to) {
+        return from.isAccessibleTo(null) && to.isAccessibleTo(null);
+    }
+
+    /**
+     * Keeps the chunk of a square loaded for as long as this board exists,
+     * so the square stays valid even while it is not occupied.
+     *
+     * @param square
+     *            A square of this board.
+     */
+    public synchronized void pin(Square square) {
+        pinned.add(chunkNumber(square.getIndex()));
+    }
+
+    /**
+     * Keeps the chunks of the square a unit moves from and the square it
+     * moves into loaded until the move is over, so a viewport loading other
+     * chunks in the meantime cannot drop the destination before the unit
+     * occupies it.
+     *
+     * @param location
+     *            The square of this board the unit moves from.
+     * @param direction
+     *            The direction the unit moves in.
+     */
+    @Override
+    public synchronized void holdMove(Square location, Direction direction) {
+        held.merge(chunkNumber(location.getIndex()), 1, Integer::sum);
+        held.merge(chunkNumber(neighbourIndex(location, direction)), 1, Integer::sum);
+    }
+
+    @Override
+    public synchronized void releaseMove(Square location, Direction direction) {
+        release(chunkNumber(location.getIndex()));
+        release(chunkNumber(neighbourIndex(location, direction)));
+    }
+
+    private void release(int number) {
+        held.computeIfPresent(number, (key, count) -> {
+            if (count > 1) {
+                return count - 1;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Loads the chunks around a position, so units or a viewport coming near
+     * do not wait for them.
+     *
+     * @param x
+     *            The <code>x</code> position (column) to load around.
+     * @param y
+     *            The <code>y</code> position (row) to load around.
+     * @param radius
+     *            The number of squares around the position to load.
+     */
+    public synchronized void preload(int x, int y, int radius) {
+        for (int dy = -radius; dy < radius + chunkSize; dy += chunkSize) {
+            int row = Math.floorMod(y + Math.min(dy, radius), getHeight());
+            for (int dx = -radius; dx < radius + chunkSize; dx += chunkSize) {
+                int column = Math.floorMod(x + Math.min(dx, radius), getWidth());
+                chunk(chunkNumber(column, row));
+            }
+        }
+    }
+
+    /**
+     * @return The number of chunks currently loaded.
+     */
+    public synchronized int getLoadedChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * @return The number of chunks loaded so far, including chunks that
+     *         were loaded again after being dropped.
+     */
+    public synchronized long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * @return The number of chunks dropped so far.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private int chunkNumber(int x, int y) {
+        return (y / chunkSize) * chunksAcross + x / chunkSize;
+    }
+
+    private int chunkNumber(int index) {
+        return chunkNumber(index % getWidth(), index / getWidth());
+    }
+
+    /**
+     * Returns a loaded chunk, loading it first if needed.
+     *
+     * @param number
+     *            The number of the chunk.
+     * @return The squares of the chunk.
+     */
+    private Square[] chunk(int number) {
+        Square[] chunk = chunks.get(number);
+        if (chunk == null) {
+            chunk = load(number);
+            evict();
+            chunks.put(number, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Creates the squares of a chunk.
+     *
+     * @param number
+     *            The number of the chunk.
+     * @return The squares of the chunk, row by row.
+     */
+    private Square[] load(int number) {
+        int left = number % chunksAcross * chunkSize;
+        int top = number / chunksAcross * chunkSize;
+        Square[] chunk = new Square[chunkSize * chunkSize];
+        for (int y = top; y < Math.min(top + chunkSize, getHeight()); y++) {
+            for (int x = left; x < Math.min(left + chunkSize, getWidth()); x++) {
+                Square square = source.createSquare(x, y);
+                square.attach(this, indexOf(x, y));
+                chunk[(y - top) * chunkSize + x - left] = square;
+                loadedSquares++;
+            }
+        }
+        loadCount++;
+        return chunk;
+    }
+
+    /**
+     * Drops the least recently used chunks without occupants, pinned squares
+     * or moves in progress until the loaded squares fit the budget again.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Integer, Square[]>> entries = chunks.entrySet().iterator();
+        while (loadedSquares > maximumSquares && entries.hasNext()) {
+            Map.Entry<Integer, Square[]> entry = entries.next();
+            Integer number = entry.getKey();
+            if (!pinned.contains(number) && !held.containsKey(number)
+                && !isOccupied(entry.getValue())) {
+                entries.remove();
+                loadedSquares -= countSquares(entry.getValue());
+                evictionCount++;
+            }
+        }
+    }
+
+    private static boolean isOccupied(Square[] chunk) {
+        for (Square square : chunk) {
+            if (square != null && square.getOccupantCount() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int countSquares(Square[] chunk) {
+        int count = 0;
+        for (Square square : chunk) {
+            if (square != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -1,9 +1,9 @@
 package nl.tudelft.jpacman.board;
 
-import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import com.google.common.collect.ImmutableList;
 
@@ -17,24 +17,78 @@ import nl.tudelft.jpacman.sprite.Sprite;
 public abstract class Square {
 
     /**
-     * The units occupying this square, in order of appearance.
+     * The units occupying this square, in order of appearance. The list is
+     * immutable and replaced as a whole whenever a unit enters or leaves, so
+     * it can be handed out and read from any thread without copying.
      */
-    private final List<Unit> occupants;
+    private volatile List<Unit> occupants;
 
     /**
-     * The collection of squares adjacent to this square.
+     * The {@link UnitKind#mask()}s of all occupants or-ed together.
      */
-    private final Map<Direction, Square> neighbours;
+    private volatile int occupantKinds;
+
+    /**
+     * The position of this square on its board, in row-major order.
+     */
+    private int index;
+
+    /**
+     * The board this square is on, or <code>null</code> if it is not on a
+     * board yet. Neighbours that were not linked explicitly are looked up on
+     * the board.
+     */
+    private Board board;
+
+    /**
+     * The neighbours linked with {@link #link(Square, Direction)}, or
+     * <code>null</code> if there are none.
+     */
+    private Map<Direction, Square> links;
 
     /**
      * Creates a new, empty square.
      */
     protected Square() {
-        this.occupants = new ArrayList<>();
-        this.neighbours = new EnumMap<>(Direction.class);
+        this.occupants = ImmutableList.of();
         assert invariant();
     }
 
+    /**
+     * Returns the position of this square on its board, counting squares row
+     * by row from the top-left square, which has index 0. Board-wide layers use
+     * this position to store per-square data without touching the square.
+     *
+     * @return The index of this square on its board.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Places this square on a board.
+     *
+     * @param onBoard
+     *            The board this square is on.
+     * @param boardIndex
+     *            The index of this square on the board.
+     */
+    void attach(Board onBoard, int boardIndex) {
+        this.board = onBoard;
+        this.index = boardIndex;
+        if (!occupants.isEmpty()) {
+            onBoard.occupied(this);
+        }
+    }
+
+    /**
+     * @return The board this square is on, or <code>null</code> if it is not
+     *         on a board.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
     /**
      * Returns the square adjacent to this square.
      *
@@ -43,12 +97,19 @@ public abstract class Square {
      * @return The adjacent square in the given direction.
      */
     public Square getSquareAt(Direction direction) {
-        return neighbours.get(direction);
+        if (links != null && links.containsKey(direction)) {
+            return links.get(direction);
+        }
+        if (board == null) {
+            return null;
+        }
+        return board.neighbourOf(this, direction);
     }
 
     /**
      * Links this square to a neighbour in the given direction. Note that this
-     * is a one-way connection.
+     * is a one-way connection. Squares on a board do not need to be linked;
+     * a link overrides the neighbour on the board.
      *
      * @param neighbour
      *            The neighbour to link.
@@ -56,19 +117,128 @@ public abstract class Square {
      *            The direction the new neighbour is in, as seen from this cell.
      */
     public void link(Square neighbour, Direction direction) {
-        neighbours.put(direction, neighbour);
+        if (links == null) {
+            links = new EnumMap<>(Direction.class);
+        }
+        links.put(direction, neighbour);
         assert invariant();
     }
 
     /**
      * Returns an immutable list of units occupying this square, in the order in
-     * which they occupied this square (i.e. oldest first.)
+     * which they occupied this square (i.e. oldest first.) The list is shared
+     * between callers until the occupants of this square change, so calls do
+     * not copy.
      *
      * @return An immutable list of units occupying this square, in the order in
      *         which they occupied this square (i.e. oldest first.)
      */
     public List<Unit> getOccupants() {
-        return ImmutableList.copyOf(occupants);
+        return occupants;
+    }
+
+    /**
+     * Returns the number of units occupying this square.
+     *
+     * @return The number of units occupying this square.
+     */
+    public int getOccupantCount() {
+        return occupants.size();
+    }
+
+    /**
+     * Returns the occupant at the given position, in the order in which the
+     * units occupied this square (i.e. oldest first.)
+     *
+     * Precondition: <code>0 &lt;= index &lt; getOccupantCount()</code>.
+     *
+     * @param index
+     *            The position of the occupant.
+     * @return The occupant at the given position.
+     */
+    public Unit getOccupant(int index) {
+        List<Unit> current = occupants;
+        assert index >= 0 && index < current.size();
+        return current.get(index);
+    }
+
+    /**
+     * Performs the action for every unit occupying this square, oldest first,
+     * without copying the occupants. Units entering or leaving this square
+     * meanwhile do not affect the units visited.
+     *
+     * @param action
+     *            The action to perform for every occupant.
+     */
+    public void forEachOccupant(Consumer<? super Unit> action) {
+        assert action != null;
+        List<Unit> current = occupants;
+        for (int i = 0; i < current.size(); i++) {
+            action.accept(current.get(i));
+        }
+    }
+
+    /**
+     * Determines whether a unit of the given type occupies this square.
+     *
+     * @param type
+     *            The type of unit to look for.
+     * @return <code>true</code> iff at least one occupant is an instance of
+     *         the given type.
+     */
+    public boolean hasOccupant(Class<? extends Unit> type) {
+        assert type != null;
+        List<Unit> current = occupants;
+        for (int i = 0; i < current.size(); i++) {
+            if (type.isInstance(current.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines whether a unit of the given kind occupies this square. Unlike
+     * {@link #hasOccupant(Class)} this does not look at the occupants.
+     *
+     * @param kind
+     *            The kind of unit to look for.
+     * @return <code>true</code> iff at least one occupant is of the given kind.
+     */
+    public boolean hasOccupant(UnitKind kind) {
+        return (occupantKinds & kind.mask()) != 0;
+    }
+
+    /**
+     * Counts the occupants of the given kind.
+     *
+     * @param kind
+     *            The kind of unit to count.
+     * @return The number of occupants of the given kind.
+     */
+    public int countOccupants(UnitKind kind) {
+        if (!hasOccupant(kind)) {
+            return 0;
+        }
+        int count = 0;
+        List<Unit> current = occupants;
+        for (int i = 0; i < current.size(); i++) {
+            if (current.get(i).getKind() == kind) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Determines whether the given unit is one of the occupants of this square.
+     *
+     * @param unit
+     *            The unit to look for.
+     * @return <code>true</code> iff the unit occupies this square.
+     */
+    public boolean isOccupiedBy(Unit unit) {
+        return occupants.contains(unit);
     }
 
     /**
@@ -79,9 +249,14 @@ public abstract class Square {
      */
     void put(Unit occupant) {
         assert occupant != null;
-        assert !occupants.contains(occupant);
+        List<Unit> current = occupants;
+        assert !current.contains(occupant);
 
-        occupants.add(occupant);
+        occupants = ImmutableList.<Unit>builder().addAll(current).add(occupant).build();
+        occupantKinds |= occupant.kindMask();
+        if (board != null && current.isEmpty()) {
+            board.occupied(this);
+        }
     }
 
     /**
@@ -92,7 +267,24 @@ public abstract class Square {
      */
     void remove(Unit occupant) {
         assert occupant != null;
-        occupants.remove(occupant);
+        List<Unit> current = occupants;
+        if (!current.contains(occupant)) {
+            return;
+        }
+        ImmutableList.Builder<Unit> remaining = ImmutableList.builder();
+        int kinds = 0;
+        for (int i = 0; i < current.size(); i++) {
+            Unit unit = current.get(i);
+            if (unit != occupant) {
+                remaining.add(unit);
+                kinds |= unit.kindMask();
+            }
+        }
+        occupants = remaining.build();
+        occupantKinds = kinds;
+        if (board != null && occupants.isEmpty()) {
+            board.vacated(this);
+        }
     }
 
     /**
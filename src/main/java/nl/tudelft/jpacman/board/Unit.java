@@ -20,10 +20,50 @@ public abstract class Unit {
     private Direction direction;
 
     /**
-     * Creates a unit that is facing east.
+     * The kind of this unit.
+     */
+    private final UnitKind kind;
+
+    /**
+     * The bit of {@link #kind} in an occupant mask, cached for
+     * {@link Square}.
+     */
+    private final int kindMask;
+
+    /**
+     * Creates a unit of kind {@link UnitKind#OTHER} that is facing east.
      */
     protected Unit() {
+        this(UnitKind.OTHER);
+    }
+
+    /**
+     * Creates a unit of the given kind that is facing east.
+     *
+     * @param kind
+     *            The kind of this unit.
+     */
+    protected Unit(UnitKind kind) {
+        assert kind != null;
         this.direction = Direction.EAST;
+        this.kind = kind;
+        this.kindMask = kind.mask();
+    }
+
+    /**
+     * Returns the kind of this unit.
+     *
+     * @return The kind of this unit.
+     */
+    public UnitKind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return The bit of the kind of this unit in an occupant mask.
+     */
+    final int kindMask() {
+        return kindMask;
     }
 
     /**
@@ -101,7 +141,7 @@ public abstract class Unit {
      *         not occupying any square.
      */
     protected boolean invariant() {
-        return square == null || square.getOccupants().contains(this);
+        return square == null || square.isOccupiedBy(this);
     }
 
     /**
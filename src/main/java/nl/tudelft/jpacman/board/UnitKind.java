@@ -0,0 +1,46 @@
+package nl.tudelft.jpacman.board;
+
+/**
+ * The kinds of units that can occupy a {@link Square}. Every square keeps a
+ * bit mask of the kinds of its occupants, so asking whether a square holds a
+ * unit of a certain kind does not require looking at the occupants.
+ *
+ * <p>A kind only tells which units a square holds. Code that treats a unit as
+ * a {@link nl.tudelft.jpacman.level.Player}, {@link nl.tudelft.jpacman.npc.Ghost}
+ * or {@link nl.tudelft.jpacman.level.Pellet} checks its class before casting
+ * it, as the collision maps do.</p>
+ */
+public enum UnitKind {
+
+    /**
+     * A unit controlled by a player.
+     */
+    PLAYER,
+
+    /**
+     * A non-player unit chasing the players.
+     */
+    GHOST,
+
+    /**
+     * A pellet that can be eaten by a player.
+     */
+    PELLET,
+
+    /**
+     * Any other unit.
+     */
+    OTHER;
+
+    /**
+     * The bit representing this kind in an occupant mask.
+     */
+    private final int mask = 1 << ordinal();
+
+    /**
+     * @return The bit representing this kind in an occupant mask.
+     */
+    public int mask() {
+        return mask;
+    }
+}
@@ -0,0 +1,24 @@
+package nl.tudelft.jpacman.board;
+
+/**
+ * Units of a board that are not stored as occupants of its squares, such as
+ * pellets kept one bit per square. A layer turns such a unit into a real
+ * occupant when a search by class asks for it, so code that looks for units
+ * on squares finds them too.
+ */
+public interface UnitLayer {
+
+    /**
+     * Puts the unit of this layer on the given square as an occupant, if the
+     * layer has a unit of the given type there. The unit is then no longer
+     * part of this layer.
+     *
+     * @param square
+     *            The square to look at.
+     * @param type
+     *            The type of unit asked for.
+     * @return The unit that now occupies the square, or <code>null</code> if
+     *         this layer has no unit of the given type on the square.
+     */
+    Unit placeOccupant(Square square, Class<? extends Unit> type);
+}
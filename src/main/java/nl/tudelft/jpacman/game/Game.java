@@ -97,9 +97,33 @@ public abstract class Game implements LevelObserver {
      *            The direction to move in.
      */
     public void move(Player player, Direction direction) {
+        move(player, direction, InputLatency.NO_INPUT);
+    }
+
+    /**
+     * Moves the specified player one square in the given direction, as asked
+     * for by a key press, measuring the time the move takes in
+     * {@link InputLatency#shared()}.
+     *
+     * @param player
+     *            The player to move.
+     * @param direction
+     *            The direction to move in.
+     * @param sequence
+     *            The sequence number of the key press, or
+     *            {@link InputLatency#NO_INPUT}.
+     */
+    public void move(Player player, Direction direction, long sequence) {
         if (isInProgress()) {
-            // execute player move.
-            getLevel().move(player, direction);
+            if (sequence == InputLatency.NO_INPUT) {
+                getLevel().move(player, direction);
+            } else {
+                InputLatency latency = InputLatency.shared();
+                latency.moveStarted(sequence);
+                getLevel().move(player, direction,
+                    wait -> latency.lockAcquired(sequence, wait));
+                latency.moved(sequence);
+            }
             pointCalculator.pacmanMoved(player, direction);
         }
     }
@@ -0,0 +1,323 @@
+package nl.tudelft.jpacman.game;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures how long it takes from pressing a key until a frame shows the
+ * move it made, and where that time goes. Each key press gets a sequence
+ * number, which travels with the move it asks for through the
+ * {@link InputQueue}, {@link Game#move(nl.tudelft.jpacman.level.Player,
+ * nl.tudelft.jpacman.board.Direction, long)} and
+ * {@link nl.tudelft.jpacman.level.Level#move(nl.tudelft.jpacman.board.Unit,
+ * nl.tudelft.jpacman.board.Direction, java.util.function.LongConsumer)},
+ * until the board is painted. The durations of each stage are kept in a
+ * {@link LatencyHistogram}:
+ *
+ * <ol>
+ * <li>dispatch: from the key event until the key listener ran, to
+ * millisecond precision;</li>
+ * <li>queue: from the key listener until the move was taken from the input
+ * queue;</li>
+ * <li>lock: waiting for other units to finish moving;</li>
+ * <li>render: from the move until a frame painted after it was shown;</li>
+ * <li>total: from the key event until that frame was shown.</li>
+ * </ol>
+ *
+ * <p>Key presses that do not lead to a move, such as repeats dropped by the
+ * input queue, are not counted after the dispatch stage. At most
+ * {@value #WINDOW} presses are followed at once.</p>
+ */
+public final class InputLatency {
+
+    /**
+     * The sequence number of moves not asked for with a key.
+     */
+    public static final long NO_INPUT = 0L;
+
+    /**
+     * The number of key presses followed at once.
+     */
+    private static final int WINDOW = 1024;
+
+    /**
+     * The instance shared by the key listener, the game and the board.
+     */
+    private static final InputLatency SHARED = new InputLatency();
+
+    /**
+     * The time from the key event until the key listener ran.
+     */
+    private final LatencyHistogram dispatch = new LatencyHistogram("dispatch");
+
+    /**
+     * The time from the key listener until the move was taken from the
+     * input queue.
+     */
+    private final LatencyHistogram queue = new LatencyHistogram("queue");
+
+    /**
+     * The time spent waiting for the move lock of the level.
+     */
+    private final LatencyHistogram lock = new LatencyHistogram("lock");
+
+    /**
+     * The time from the move until a frame showing it was painted.
+     */
+    private final LatencyHistogram render = new LatencyHistogram("render");
+
+    /**
+     * The time from the key event until a frame showing its move was
+     * painted.
+     */
+    private final LatencyHistogram total = new LatencyHistogram("total");
+
+    /**
+     * The last sequence number handed out.
+     */
+    private final AtomicLong sequences = new AtomicLong(NO_INPUT);
+
+    /**
+     * The key press each slot of the time arrays is for.
+     */
+    private final AtomicLongArray slots = new AtomicLongArray(WINDOW);
+
+    /**
+     * When the key events happened, on the {@link System#nanoTime()} clock.
+     */
+    private final AtomicLongArray eventTimes = new AtomicLongArray(WINDOW);
+
+    /**
+     * When the key listener ran.
+     */
+    private final AtomicLongArray pressTimes = new AtomicLongArray(WINDOW);
+
+    /**
+     * When the moves were made, or 0 if they were not made yet.
+     */
+    private final AtomicLongArray moveTimes = new AtomicLongArray(WINDOW);
+
+    /**
+     * The highest sequence number of the moves made.
+     */
+    private final AtomicLong lastMoved = new AtomicLong(NO_INPUT);
+
+    /**
+     * The highest sequence number of the moves shown in a frame.
+     */
+    private long lastShown = NO_INPUT;
+
+    /**
+     * The sequence number of the key press on each thread, until the move it
+     * asks for claims it or its action has run.
+     */
+    private final ThreadLocal<Long> pending = new ThreadLocal<>();
+
+    /**
+     * Creates a new set of measurements, separate from the shared one.
+     */
+    InputLatency() {
+        // histograms and times start empty
+    }
+
+    /**
+     * @return The measurements of the key listeners and board of the game.
+     */
+    public static InputLatency shared() {
+        return SHARED;
+    }
+
+    /**
+     * Notes that a key was pressed, just before the action it is mapped to
+     * runs on the same thread.
+     *
+     * @param eventTime
+     *            When the key event happened, in milliseconds since the
+     *            epoch, as given by
+     *            {@link java.awt.event.InputEvent#getWhen()}.
+     * @return The sequence number of the key press.
+     */
+    public long pressed(long eventTime) {
+        long now = System.nanoTime();
+        long delay = TimeUnit.MILLISECONDS.toNanos(
+            Math.max(0L, System.currentTimeMillis() - eventTime));
+        long sequence = sequences.incrementAndGet();
+        int slot = slot(sequence);
+        moveTimes.set(slot, 0L);
+        eventTimes.set(slot, now - delay);
+        pressTimes.set(slot, now);
+        slots.set(slot, sequence);
+        dispatch.record(delay);
+        pending.set(sequence);
+        return sequence;
+    }
+
+    /**
+     * Takes the sequence number of the last key pressed on this thread, so
+     * it can be passed along with the move the key asks for.
+     *
+     * @return The sequence number, or {@link #NO_INPUT} if no key was pressed
+     *         or its number was claimed already.
+     */
+    public long claim() {
+        Long sequence = pending.get();
+        if (sequence == null) {
+            return NO_INPUT;
+        }
+        pending.remove();
+        return sequence;
+    }
+
+    /**
+     * Notes that the action of the last key pressed on this thread has run,
+     * dropping its sequence number if the action did not claim it, so a
+     * later move on this thread is not taken for that key's move.
+     */
+    public void dispatched() {
+        pending.remove();
+    }
+
+    private static int slot(long sequence) {
+        return (int) (sequence % WINDOW);
+    }
+
+    private boolean isFollowed(long sequence) {
+        return sequence != NO_INPUT && slots.get(slot(sequence)) == sequence;
+    }
+
+    /**
+     * Notes that the move asked for by a key press is about to be made.
+     *
+     * @param sequence
+     *            The sequence number of the key press.
+     */
+    public void moveStarted(long sequence) {
+        if (isFollowed(sequence)) {
+            queue.record(System.nanoTime() - pressTimes.get(slot(sequence)));
+        }
+    }
+
+    /**
+     * Notes how long the move asked for by a key press waited for other
+     * units to finish moving.
+     *
+     * @param sequence
+     *            The sequence number of the key press.
+     * @param waitNanos
+     *            The time waited, in nanoseconds.
+     */
+    public void lockAcquired(long sequence, long waitNanos) {
+        if (isFollowed(sequence)) {
+            lock.record(waitNanos);
+        }
+    }
+
+    /**
+     * Notes that the move asked for by a key press was made, so the next
+     * frame painted shows it.
+     *
+     * @param sequence
+     *            The sequence number of the key press.
+     */
+    public void moved(long sequence) {
+        if (isFollowed(sequence)) {
+            moveTimes.set(slot(sequence), System.nanoTime());
+            lastMoved.accumulateAndGet(sequence, Math::max);
+        }
+    }
+
+    /**
+     * Notes that a frame is about to be painted, which will show all moves
+     * made so far.
+     *
+     * @return The highest sequence number of the moves the frame shows, to
+     *         pass to {@link #framePainted(long)}.
+     */
+    public long frameStarted() {
+        return lastMoved.get();
+    }
+
+    /**
+     * Notes that a frame was painted, and counts the key presses whose moves
+     * it shows for the first time.
+     *
+     * @param shown
+     *            The highest sequence number of the moves the frame shows,
+     *            as returned by {@link #frameStarted()}.
+     */
+    public synchronized void framePainted(long shown) {
+        if (shown <= lastShown) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (long sequence = Math.max(lastShown + 1, shown - WINDOW + 1); sequence <= shown;
+             sequence++) {
+            int slot = slot(sequence);
+            long moveTime = moveTimes.get(slot);
+            if (slots.get(slot) == sequence && moveTime != 0L) {
+                render.record(now - moveTime);
+                total.record(now - eventTimes.get(slot));
+            }
+        }
+        lastShown = shown;
+    }
+
+    /**
+     * @return The time from key events until their listeners ran.
+     */
+    public LatencyHistogram getDispatch() {
+        return dispatch;
+    }
+
+    /**
+     * @return The time from key listeners until their moves were taken from
+     *         the input queue.
+     */
+    public LatencyHistogram getQueue() {
+        return queue;
+    }
+
+    /**
+     * @return The time moves waited for other units to finish moving.
+     */
+    public LatencyHistogram getLock() {
+        return lock;
+    }
+
+    /**
+     * @return The time from moves until a frame showing them was painted.
+     */
+    public LatencyHistogram getRender() {
+        return render;
+    }
+
+    /**
+     * @return The time from key events until a frame showing their moves was
+     *         painted.
+     */
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    /**
+     * Prints the histograms of all stages.
+     *
+     * @param out
+     *            The stream to print to.
+     */
+    public void dump(PrintStream out) {
+        dispatch.dump(out);
+        queue.dump(out);
+        lock.dump(out);
+        render.dump(out);
+        total.dump(out);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(System.lineSeparator(), dispatch.toString(), queue.toString(),
+            lock.toString(), render.toString(), total.toString());
+    }
+}
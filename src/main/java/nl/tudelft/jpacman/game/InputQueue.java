@@ -0,0 +1,314 @@
+package nl.tudelft.jpacman.game;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.level.Player;
+
+/**
+ * Queues the moves a player asks for, so that input threads such as the
+ * Swing event dispatch thread never wait for the level, and applies them on
+ * a thread of its own, one move per tick.
+ *
+ * <p>A key held down repeats its move; a repeat is dropped while the same
+ * move is still queued. A move into a wall only turns the player, as it
+ * would without the queue, and is also remembered as the next turn for a
+ * short while, to be taken instead of a later move as soon as the wall is
+ * passed, so players can turn into a corridor by asking early.</p>
+ *
+ * <p>The queue measures how many moves wait and how long it takes from
+ * asking for a move until it is made. Moves asked for with a key carry the
+ * sequence number of the key press from {@link InputLatency} along.</p>
+ */
+public class InputQueue {
+
+    /**
+     * The default time between ticks, in milliseconds, which is shorter than
+     * the time between key repeats so held keys do not pile up moves.
+     */
+    public static final long DEFAULT_TICK = 20L;
+
+    /**
+     * The time a move into a wall is kept as the next turn, in nanoseconds.
+     */
+    private static final long TURN_WINDOW = TimeUnit.MILLISECONDS.toNanos(300L);
+
+    /**
+     * The game to move the player in.
+     */
+    private final Game game;
+
+    /**
+     * The player to move.
+     */
+    private final Player player;
+
+    /**
+     * The moves asked for and not yet taken from the queue.
+     */
+    private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of moves in {@link #commands}.
+     */
+    private final AtomicInteger depth = new AtomicInteger();
+
+    /**
+     * The largest number of moves that were queued at once.
+     */
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    /**
+     * The number of repeated moves dropped.
+     */
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * The number of moves made.
+     */
+    private final AtomicLong moves = new AtomicLong();
+
+    /**
+     * The sum of the times from asking for a move until it was made, in
+     * nanoseconds.
+     */
+    private final AtomicLong totalLatency = new AtomicLong();
+
+    /**
+     * The longest time from asking for a move until it was made, in
+     * nanoseconds.
+     */
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * The move asked for last, to drop repeats of.
+     */
+    private volatile Command newest;
+
+    /**
+     * The move into a wall to take when it becomes possible, or
+     * <code>null</code>. Only used by the tick thread.
+     */
+    private Command turn;
+
+    /**
+     * The thread applying the moves, or <code>null</code> if not started.
+     */
+    private ScheduledExecutorService service;
+
+    /**
+     * Creates a new input queue for a player.
+     *
+     * @param game
+     *            The game to move the player in.
+     * @param player
+     *            The player to move.
+     */
+    public InputQueue(Game game, Player player) {
+        assert game != null;
+        assert player != null;
+        this.game = game;
+        this.player = player;
+    }
+
+    /**
+     * Asks for the player to be moved. Returns at once, without taking any
+     * locks. May be called from any thread.
+     *
+     * @param direction
+     *            The direction to move in.
+     */
+    public void submit(Direction direction) {
+        assert direction != null;
+        long sequence = InputLatency.shared().claim();
+        Command last = newest;
+        if (last != null && last.direction == direction && !last.taken) {
+            coalesced.incrementAndGet();
+            return;
+        }
+        Command command = new Command(direction, System.nanoTime(), sequence);
+        newest = command;
+        commands.add(command);
+        maxDepth.accumulateAndGet(depth.incrementAndGet(), Math::max);
+    }
+
+    /**
+     * Starts applying the queued moves, one every tick.
+     *
+     * @param tickMillis
+     *            The time between ticks, in milliseconds.
+     */
+    public synchronized void start(long tickMillis) {
+        assert tickMillis > 0;
+        if (service != null) {
+            return;
+        }
+        service = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "player-input");
+            thread.setDaemon(true);
+            return thread;
+        });
+        service.scheduleAtFixedRate(this::tick, tickMillis, tickMillis,
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops applying moves. Moves asked for after this stay queued until the
+     * queue is started again.
+     */
+    public synchronized void stop() {
+        if (service != null) {
+            service.shutdownNow();
+            service = null;
+        }
+    }
+
+    /**
+     * Takes the next move from the queue and makes it, or the next turn
+     * instead if that became possible. Moves asked for while the game is not
+     * in progress are dropped, as the game would ignore them. A move that
+     * fails is reported to the uncaught exception handler of the thread, and
+     * the queue goes on with the next move at the next tick, rather than
+     * stopping for good.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    void tick() {
+        try {
+            takeMove();
+        } catch (RuntimeException | AssertionError e) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    private void takeMove() {
+        Command command = commands.poll();
+        if (command == null) {
+            return;
+        }
+        depth.decrementAndGet();
+        command.taken = true;
+        if (!game.isInProgress() || !player.hasSquare()) {
+            turn = null;
+            return;
+        }
+        Direction direction = command.direction;
+        if (turn != null && command.time - turn.time > TURN_WINDOW) {
+            turn = null;
+        }
+        if (turn != null && turn.direction != direction && canMove(turn.direction)) {
+            direction = turn.direction;
+            turn = null;
+        } else if (!canMove(direction)) {
+            turn = command;
+        }
+        game.move(player, direction, command.sequence);
+        long latency = System.nanoTime() - command.time;
+        moves.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    private boolean canMove(Direction direction) {
+        Square square = player.getSquare();
+        return square.getSquareAt(direction).isAccessibleTo(player);
+    }
+
+    /**
+     * @return The number of moves waiting to be made.
+     */
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    /**
+     * @return The largest number of moves that waited at once.
+     */
+    public int getMaxQueueDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * @return The number of repeated moves dropped while the same move was
+     *         still queued.
+     */
+    public long getCoalescedMoves() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return The number of moves made.
+     */
+    public long getMoveCount() {
+        return moves.get();
+    }
+
+    /**
+     * @return The average time from asking for a move until it was made, in
+     *         nanoseconds, or 0 if no moves were made.
+     */
+    public long getAverageLatency() {
+        long count = moves.get();
+        if (count == 0) {
+            return 0;
+        }
+        return totalLatency.get() / count;
+    }
+
+    /**
+     * @return The longest time from asking for a move until it was made, in
+     *         nanoseconds.
+     */
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d moves, %d coalesced, depth %d (max %d), "
+                + "latency %d us (max %d us)",
+            getMoveCount(), getCoalescedMoves(), getQueueDepth(), getMaxQueueDepth(),
+            TimeUnit.NANOSECONDS.toMicros(getAverageLatency()),
+            TimeUnit.NANOSECONDS.toMicros(getMaxLatency()));
+    }
+
+    /**
+     * A move asked for.
+     */
+    private static final class Command {
+
+        /**
+         * The direction to move in.
+         */
+        private final Direction direction;
+
+        /**
+         * When the move was asked for, in nanoseconds.
+         */
+        private final long time;
+
+        /**
+         * The sequence number of the key press asking for the move, or
+         * {@link InputLatency#NO_INPUT}.
+         */
+        private final long sequence;
+
+        /**
+         * Whether the move was taken from the queue.
+         */
+        private volatile boolean taken;
+
+        private Command(Direction direction, long time, long sequence) {
+            this.direction = direction;
+            this.time = time;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package nl.tudelft.jpacman.game;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds with log-linear buckets: every
+ * power of two is split into {@value #SUB_BUCKETS} equal buckets, so any
+ * duration is counted with a relative error of at most 1 in
+ * {@value #SUB_BUCKETS}, using a fixed, small number of buckets. Durations
+ * may be recorded from any thread without locking, and read at the same
+ * time.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of bits of a duration kept exactly.
+     */
+    private static final int SUB_BITS = 4;
+
+    /**
+     * The number of buckets per power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * The number of bits in a duration.
+     */
+    private static final int BITS = Long.SIZE - 1;
+
+    /**
+     * The number of buckets needed to count any positive <code>long</code>.
+     */
+    private static final int BUCKETS = (BITS - SUB_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * The highest percentile.
+     */
+    private static final double ALL = 100.0;
+
+    /**
+     * The percentile of the typical duration, shown by {@link #toString()}.
+     */
+    private static final double MEDIAN = 50.0;
+
+    /**
+     * The percentile of the worst durations, shown by {@link #toString()}.
+     */
+    private static final double TAIL = 99.0;
+
+    /**
+     * The number of nanoseconds in a millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * The name of the durations.
+     */
+    private final String name;
+
+    /**
+     * The number of durations in each bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * The number of durations recorded.
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * The sum of the durations recorded.
+     */
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * The longest duration recorded.
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Creates a new, empty histogram.
+     *
+     * @param name
+     *            The name of the durations, used when printing them.
+     */
+    public LatencyHistogram(String name) {
+        assert name != null;
+        this.name = name;
+    }
+
+    /**
+     * @return The name of the durations.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Counts a duration. Negative durations, which only occur when clocks
+     * are compared that are not quite in step, are counted as 0.
+     *
+     * @param nanos
+     *            The duration, in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0L);
+        counts.incrementAndGet(bucket(value));
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+        count.incrementAndGet();
+    }
+
+    /**
+     * Returns the bucket counting a duration: durations below
+     * {@value #SUB_BUCKETS} have a bucket each, longer ones share a bucket
+     * with those that have the same highest {@value #SUB_BITS} + 1 bits.
+     *
+     * @param value
+     *            The duration, at least 0.
+     * @return The index of the bucket.
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = BITS - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @param bucket
+     *            The index of a bucket.
+     * @return The shortest duration counted in the bucket.
+     */
+    static long lowest(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return sub << (exponent - SUB_BITS);
+    }
+
+    /**
+     * @param bucket
+     *            The index of a bucket.
+     * @return The longest duration counted in the bucket.
+     */
+    static long highest(int bucket) {
+        if (bucket + 1 >= BUCKETS) {
+            return Long.MAX_VALUE;
+        }
+        return lowest(bucket + 1) - 1;
+    }
+
+    /**
+     * @return The number of durations recorded.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return The longest duration recorded, in nanoseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return The average duration, in nanoseconds, or 0 if none were
+     *         recorded.
+     */
+    public double getMean() {
+        long n = count.get();
+        if (n == 0) {
+            return 0.0;
+        }
+        return (double) sum.get() / n;
+    }
+
+    /**
+     * Returns the duration that the given percentage of the durations
+     * recorded does not exceed, rounded up to the end of its bucket.
+     *
+     * @param percentile
+     *            The percentage of durations, between 0 and 100.
+     * @return The duration, in nanoseconds, or 0 if none were recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        assert percentile >= 0.0 && percentile <= ALL;
+        long n = count.get();
+        if (n == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / ALL * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highest(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Prints the buckets that counted any durations, one per line, with the
+     * range of the bucket in milliseconds, its count and the percentage of
+     * durations up to and including it.
+     *
+     * @param out
+     *            The stream to print to.
+     */
+    public void dump(PrintStream out) {
+        out.println(this);
+        long n = count.get();
+        long seen = 0;
+        for (int i = 0; i < BUCKETS && n > 0; i++) {
+            long bucketCount = counts.get(i);
+            if (bucketCount == 0) {
+                continue;
+            }
+            seen += bucketCount;
+            out.printf("  %10.3f - %10.3f ms %8d %7.3f%%%n", lowest(i) / NANOS_PER_MILLI,
+                highest(i) / NANOS_PER_MILLI, bucketCount, Math.min(ALL, ALL * seen / n));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d, mean %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms",
+            name, getCount(), getMean() / NANOS_PER_MILLI,
+            getValueAtPercentile(MEDIAN) / NANOS_PER_MILLI,
+            getValueAtPercentile(TAIL) / NANOS_PER_MILLI, getMax() / NANOS_PER_MILLI);
+    }
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import nl.tudelft.jpacman.board.Unit;
 
@@ -15,17 +16,34 @@ import nl.tudelft.jpacman.board.Unit;
  */
 public class CollisionInteractionMap implements CollisionMap {
 
+    /**
+     * The handler cached for pairs of classes without a collision handler.
+     */
+    private static final CollisionHandler<Unit, Unit> NO_HANDLER = (collider, collidee) -> {
+        // nothing happens.
+    };
+
     /**
      * The collection of collision handlers.
      */
     private final Map<Class<? extends Unit>,
         Map<Class<? extends Unit>, CollisionHandler<?, ?>>> handlers;
 
+    /**
+     * The handlers resolved so far, by collider class and collidee class.
+     * Replaced by an empty table whenever a handler is registered, so a
+     * resolution that raced with a registration only ends up in the
+     * discarded table.
+     */
+    private volatile Map<Class<? extends Unit>,
+        Map<Class<? extends Unit>, CollisionHandler<?, ?>>> dispatch;
+
     /**
      * Creates a new, empty collision map.
      */
     public CollisionInteractionMap() {
         this.handlers = new HashMap<>();
+        this.dispatch = new ConcurrentHashMap<>();
     }
 
     /**
@@ -95,6 +113,7 @@ public class CollisionInteractionMap implements CollisionMap {
 
         Map<Class<? extends Unit>, CollisionHandler<?, ?>> map = handlers.get(collider);
         map.put(collidee, handler);
+        dispatch = new ConcurrentHashMap<>();
     }
 
     /**
@@ -115,23 +134,67 @@ public class CollisionInteractionMap implements CollisionMap {
     @Override
     public <C1 extends Unit, C2 extends Unit> void collide(C1 collider,
                                                            C2 collidee) {
-        Class<? extends Unit> colliderKey = getMostSpecificClass(handlers, collider.getClass());
+        CollisionHandler<C1, C2> collisionHandler =
+            (CollisionHandler<C1, C2>) lookup(collider.getClass(), collidee.getClass());
+        collisionHandler.handleCollision(collider, collidee);
+    }
+
+    /**
+     * Returns the handler for collisions between instances of the given
+     * classes, resolving and caching it on the first collision of the pair.
+     *
+     * @param colliderClass
+     *            The class of the collider.
+     * @param collideeClass
+     *            The class of the collidee.
+     * @return The handler of the collision, or {@link #NO_HANDLER} if none is
+     *         listed.
+     */
+    private CollisionHandler<?, ?> lookup(Class<? extends Unit> colliderClass,
+                                          Class<? extends Unit> collideeClass) {
+        Map<Class<? extends Unit>, Map<Class<? extends Unit>, CollisionHandler<?, ?>>> table =
+            dispatch;
+        Map<Class<? extends Unit>, CollisionHandler<?, ?>> row = table.get(colliderClass);
+        if (row == null) {
+            row = table.computeIfAbsent(colliderClass, key -> new ConcurrentHashMap<>());
+        }
+        CollisionHandler<?, ?> handler = row.get(collideeClass);
+        if (handler == null) {
+            handler = resolve(colliderClass, collideeClass);
+            row.put(collideeClass, handler);
+        }
+        return handler;
+    }
+
+    /**
+     * Finds the handler for collisions between instances of the given classes
+     * by walking their inheritance.
+     *
+     * @param colliderClass
+     *            The class of the collider.
+     * @param collideeClass
+     *            The class of the collidee.
+     * @return The handler of the collision, or {@link #NO_HANDLER} if none is
+     *         listed.
+     */
+    private CollisionHandler<?, ?> resolve(Class<? extends Unit> colliderClass,
+                                           Class<? extends Unit> collideeClass) {
+        Class<? extends Unit> colliderKey = getMostSpecificClass(handlers, colliderClass);
         if (colliderKey == null) {
-            return;
+            return NO_HANDLER;
         }
 
         Map<Class<? extends Unit>, CollisionHandler<?, ?>> map = handlers.get(colliderKey);
-        Class<? extends Unit> collideeKey = getMostSpecificClass(map, collidee.getClass());
+        Class<? extends Unit> collideeKey = getMostSpecificClass(map, collideeClass);
         if (collideeKey == null) {
-            return;
+            return NO_HANDLER;
         }
 
-        CollisionHandler<C1, C2> collisionHandler = (CollisionHandler<C1, C2>) map.get(collideeKey);
+        CollisionHandler<?, ?> collisionHandler = map.get(collideeKey);
         if (collisionHandler == null) {
-            return;
+            return NO_HANDLER;
         }
-
-        collisionHandler.handleCollision(collider, collidee);
+        return collisionHandler;
     }
 
     /**
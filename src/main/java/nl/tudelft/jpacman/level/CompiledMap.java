@@ -0,0 +1,254 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+
+/**
+ * A map compiled by {@link MapCompiler}, read straight from a memory mapped
+ * file. Squares are identified by their index <code>y * width + x</code>,
+ * as in {@link nl.tudelft.jpacman.board.Board#indexOf(int, int)}.
+ *
+ * <p>The file holds, all big endian:</p>
+ * <ul>
+ * <li>the int {@link #MAGIC} and the int {@link #VERSION};
+ * <li>the width and the height of the map as ints;
+ * <li>the number of start positions followed by their indices as ints;
+ * <li>the number of ghosts followed by their indices as ints;
+ * <li>the walls and then the pellets as bitsets of longs, with bit
+ * <code>i % 64</code> of long <code>i / 64</code> set for square
+ * <code>i</code>.
+ * </ul>
+ *
+ * <p>The header and the sizes of the sections are checked against the size
+ * of the file when it is loaded, so a truncated or corrupt file is rejected
+ * before any square is read.</p>
+ */
+public final class CompiledMap {
+
+    /**
+     * The first four bytes of every compiled map: "JPMC".
+     */
+    public static final int MAGIC = 0x4A504D43;
+
+    /**
+     * The version of the format described above.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * The number of bits in a word of a bitset.
+     */
+    private static final int WORD_SIZE = Long.SIZE;
+
+    /**
+     * The number of ints in the header before the index lists: the magic
+     * number, the version, the width and the height.
+     */
+    private static final int HEADER_INTS = 4;
+
+    /**
+     * The mapped file.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The number of columns of the map.
+     */
+    private final int width;
+
+    /**
+     * The number of rows of the map.
+     */
+    private final int height;
+
+    /**
+     * The indices of the start positions, in column order.
+     */
+    private final int[] startPositions;
+
+    /**
+     * The indices of the squares with a ghost, in column order.
+     */
+    private final int[] ghosts;
+
+    /**
+     * The offset of the wall bitset in {@link #buffer}.
+     */
+    private final int wallOffset;
+
+    /**
+     * The offset of the pellet bitset in {@link #buffer}.
+     */
+    private final int pelletOffset;
+
+    /**
+     * Reads the header of a compiled map.
+     *
+     * @param buffer
+     *            The compiled map, positioned at its start.
+     */
+    private CompiledMap(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.remaining() < HEADER_INTS * Integer.BYTES || buffer.getInt() != MAGIC) {
+            throw new PacmanConfigurationException("Not a compiled map.");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new PacmanConfigurationException(
+                "Unsupported compiled map version: " + version);
+        }
+        this.width = buffer.getInt();
+        this.height = buffer.getInt();
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new PacmanConfigurationException(
+                "Invalid compiled map size: " + width + "x" + height);
+        }
+        this.startPositions = readIndices(buffer, width * height);
+        this.ghosts = readIndices(buffer, width * height);
+        long bitsetSize = (long) words(width * height) * Long.BYTES;
+        if (buffer.remaining() < 2 * bitsetSize) {
+            throw new PacmanConfigurationException("Truncated compiled map.");
+        }
+        this.wallOffset = buffer.position();
+        this.pelletOffset = wallOffset + (int) bitsetSize;
+    }
+
+    /**
+     * Maps a compiled map file into memory. The file is not read any further
+     * than its header until squares are requested.
+     *
+     * @param file
+     *            The file written by {@link MapCompiler}.
+     * @return The compiled map in the file.
+     * @throws IOException
+     *             when the file could not be mapped.
+     * @throws PacmanConfigurationException
+     *             when the file is not a compiled map of this version, or
+     *             is truncated or corrupt.
+     */
+    public static CompiledMap load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CompiledMap(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Wraps a compiled map that is already in memory.
+     *
+     * @param compiled
+     *            The bytes of a compiled map.
+     * @return The compiled map.
+     * @throws PacmanConfigurationException
+     *             when the bytes are not a compiled map of this version, or
+     *             are truncated or corrupt.
+     */
+    public static CompiledMap wrap(byte[] compiled) {
+        return new CompiledMap(ByteBuffer.wrap(compiled));
+    }
+
+    /**
+     * Reads a list of square indices, checking its length against the rest
+     * of the buffer and every index against the size of the map.
+     *
+     * @param source
+     *            The buffer, positioned at the length of the list.
+     * @param squares
+     *            The number of squares of the map.
+     * @return The indices.
+     */
+    private static int[] readIndices(ByteBuffer source, int squares) {
+        if (source.remaining() < Integer.BYTES) {
+            throw new PacmanConfigurationException("Truncated compiled map.");
+        }
+        int count = source.getInt();
+        if (count < 0 || count > squares || count > source.remaining() / Integer.BYTES) {
+            throw new PacmanConfigurationException("Corrupt compiled map: " + count
+                + " indices do not fit.");
+        }
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = source.getInt();
+            if (indices[i] < 0 || indices[i] >= squares) {
+                throw new PacmanConfigurationException("Corrupt compiled map: square "
+                    + indices[i] + " is outside the map.");
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * @param bits
+     *            The number of bits in a bitset.
+     * @return The number of longs needed to store the bitset.
+     */
+    static int words(int bits) {
+        return (bits + WORD_SIZE - 1) / WORD_SIZE;
+    }
+
+    /**
+     * @return The number of columns of the map.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The number of rows of the map.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param index
+     *            The index of a square.
+     * @return <code>true</code> iff the square is a wall.
+     */
+    public boolean isWall(int index) {
+        return isSet(wallOffset, index);
+    }
+
+    /**
+     * @param index
+     *            The index of a square.
+     * @return <code>true</code> iff the square starts with a pellet.
+     */
+    public boolean hasPellet(int index) {
+        return isSet(pelletOffset, index);
+    }
+
+    /**
+     * @param word
+     *            The number of a word of the pellet bitset.
+     * @return The pellet bits of squares <code>64 * word</code> up to
+     *         <code>64 * word + 63</code>.
+     */
+    long pelletWord(int word) {
+        return buffer.getLong(pelletOffset + word * Long.BYTES);
+    }
+
+    private boolean isSet(int offset, int index) {
+        long word = buffer.getLong(offset + index / WORD_SIZE * Long.BYTES);
+        return (word & (1L << index)) != 0;
+    }
+
+    /**
+     * @return The indices of the start positions, in column order.
+     */
+    public int[] getStartPositions() {
+        return startPositions.clone();
+    }
+
+    /**
+     * @return The indices of the squares with a ghost, in column order.
+     */
+    public int[] getGhosts() {
+        return ghosts.clone();
+    }
+}
@@ -1,6 +1,7 @@
 package nl.tudelft.jpacman.level;
 
 import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.board.UnitKind;
 import nl.tudelft.jpacman.npc.Ghost;
 import nl.tudelft.jpacman.points.PointCalculator;
 
@@ -34,6 +35,10 @@ public class DefaultPlayerInteractionMap implements CollisionMap {
 
     @Override
     public void collide(Unit mover, Unit movedInto) {
+        if (mover.getKind() != UnitKind.PLAYER && movedInto.getKind() != UnitKind.PLAYER) {
+            // only collisions with a player are listed
+            return;
+        }
         collisions.collide(mover, movedInto);
     }
 
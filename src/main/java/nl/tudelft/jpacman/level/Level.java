@@ -2,20 +2,23 @@ package nl.tudelft.jpacman.level;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
 
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.board.UnitKind;
 import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.sprite.AnimationClock;
 
 /**
  * A level of Pac-Man. A level consists of the board with the players and the
@@ -78,6 +81,16 @@ public class Level {
      */
     private final Set<LevelObserver> observers;
 
+    /**
+     * The pellets on the board that are not stored as units.
+     */
+    private final PelletLayer pellets;
+
+    /**
+     * The clock the animations of the units of this level are shown at.
+     */
+    private final AnimationClock clock;
+
     /**
      * Creates a new level for the board.
      *
@@ -92,9 +105,53 @@ public class Level {
      */
     public Level(Board board, List<Ghost> ghosts, List<Square> startPositions,
                  CollisionMap collisionMap) {
+        this(board, ghosts, startPositions, collisionMap, PelletLayer.empty());
+    }
+
+    /**
+     * Creates a new level for the board.
+     *
+     * @param board
+     *            The board for the level.
+     * @param ghosts
+     *            The ghosts on the board.
+     * @param startPositions
+     *            The squares on which players start on this board.
+     * @param collisionMap
+     *            The collection of collisions that should be handled.
+     * @param pelletLayer
+     *            The pellets on the board that are not stored as units.
+     */
+    public Level(Board board, List<Ghost> ghosts, List<Square> startPositions,
+                 CollisionMap collisionMap, PelletLayer pelletLayer) {
+        this(board, ghosts, startPositions, collisionMap, pelletLayer, new AnimationClock());
+    }
+
+    /**
+     * Creates a new level for the board.
+     *
+     * @param board
+     *            The board for the level.
+     * @param ghosts
+     *            The ghosts on the board.
+     * @param startPositions
+     *            The squares on which players start on this board.
+     * @param collisionMap
+     *            The collection of collisions that should be handled.
+     * @param pelletLayer
+     *            The pellets on the board that are not stored as units.
+     * @param animationClock
+     *            The clock the animations of the units are shown at, ticked
+     *            by the renderers of the level.
+     */
+    public Level(Board board, List<Ghost> ghosts, List<Square> startPositions,
+                 CollisionMap collisionMap, PelletLayer pelletLayer,
+                 AnimationClock animationClock) {
         assert board != null;
         assert ghosts != null;
         assert startPositions != null;
+        assert pelletLayer != null;
+        assert animationClock != null;
 
         this.board = board;
         this.inProgress = false;
@@ -106,7 +163,10 @@ public class Level {
         this.startSquareIndex = 0;
         this.players = new ArrayList<>();
         this.collisions = collisionMap;
-        this.observers = new HashSet<>();
+        this.observers = new CopyOnWriteArraySet<>();
+        this.pellets = pelletLayer;
+        this.clock = animationClock;
+        board.addLayer(pelletLayer);
     }
 
     /**
@@ -147,6 +207,7 @@ public class Level {
         players.add(player);
         Square square = startSquares.get(startSquareIndex);
         player.occupy(square);
+        squareChanged(square);
         startSquareIndex++;
         startSquareIndex %= startSquares.size();
     }
@@ -160,6 +221,25 @@ public class Level {
         return board;
     }
 
+    /**
+     * Returns the pellets of this level that are not stored as units.
+     *
+     * @return The pellet layer of this level.
+     */
+    public PelletLayer getPellets() {
+        return pellets;
+    }
+
+    /**
+     * Returns the clock the animations of the units of this level are shown
+     * at, which renderers tick once per frame.
+     *
+     * @return The animation clock of this level.
+     */
+    public AnimationClock getClock() {
+        return clock;
+    }
+
     /**
      * Moves the unit into the given direction if possible and handles all
      * collisions.
@@ -170,6 +250,23 @@ public class Level {
      *            The direction to move the unit in.
      */
     public void move(Unit unit, Direction direction) {
+        move(unit, direction, null);
+    }
+
+    /**
+     * Moves the unit into the given direction if possible and handles all
+     * collisions, telling how long the move waited for other units to finish
+     * moving.
+     *
+     * @param unit
+     *            The unit to move.
+     * @param direction
+     *            The direction to move the unit in.
+     * @param lockWait
+     *            Told the time waited in nanoseconds, once the move may be
+     *            made, or <code>null</code>.
+     */
+    public void move(Unit unit, Direction direction, LongConsumer lockWait) {
         assert unit != null;
         assert direction != null;
         assert unit.hasSquare();
@@ -178,22 +275,73 @@ public class Level {
             return;
         }
 
+        long waitStart = System.nanoTime();
         synchronized (moveLock) {
+            if (lockWait != null) {
+                lockWait.accept(System.nanoTime() - waitStart);
+            }
             unit.setDirection(direction);
             Square location = unit.getSquare();
-            Square destination = location.getSquareAt(direction);
-
-            if (destination.isAccessibleTo(unit)) {
-                List<Unit> occupants = destination.getOccupants();
-                unit.occupy(destination);
-                for (Unit occupant : occupants) {
-                    collisions.collide(unit, occupant);
-                }
+            board.holdMove(location, direction);
+            try {
+                moveTo(unit, location, location.getSquareAt(direction));
+            } finally {
+                board.releaseMove(location, direction);
             }
             updateObservers();
         }
     }
 
+    /**
+     * Moves a unit onto the square next to it, if it may enter it, and
+     * handles all collisions.
+     *
+     * @param unit
+     *            The unit to move.
+     * @param location
+     *            The square the unit is on.
+     * @param destination
+     *            The square next to it the unit moves into.
+     */
+    private void moveTo(Unit unit, Square location, Square destination) {
+        if (destination.isAccessibleTo(unit)) {
+            // collisions may remove occupants, so iterate over the snapshot
+            List<Unit> occupants = destination.getOccupants();
+            unit.occupy(destination);
+            collideWithPellet(unit, destination);
+            for (Unit occupant : occupants) {
+                collisions.collide(unit, occupant);
+            }
+            squareChanged(location);
+            squareChanged(destination);
+        }
+    }
+
+    /**
+     * Collides the unit with the pellet of the pellet layer on the square, if
+     * there is one. The pellet is put on the square for the duration of the
+     * collision, and is removed from the layer iff a collision handler made it
+     * leave the square.
+     *
+     * @param unit
+     *            The unit that moved onto the square.
+     * @param square
+     *            The square the unit moved onto.
+     */
+    private void collideWithPellet(Unit unit, Square square) {
+        if (!pellets.hasPellet(square)) {
+            return;
+        }
+        Pellet pellet = pellets.createPellet();
+        pellet.occupy(square);
+        collisions.collide(unit, pellet);
+        if (pellet.hasSquare()) {
+            pellet.leaveSquare();
+        } else {
+            pellets.remove(square);
+        }
+    }
+
     /**
      * Starts or resumes this level, allowing movement and (re)starting the
      * NPCs.
@@ -259,6 +407,18 @@ public class Level {
         return inProgress;
     }
 
+    /**
+     * Tells the observers that what is drawn on a square changed.
+     *
+     * @param square
+     *            The square that changed.
+     */
+    private void squareChanged(Square square) {
+        for (LevelObserver observer : observers) {
+            observer.squareChanged(square);
+        }
+    }
+
     /**
      * Updates the observers about the state of this level.
      */
@@ -268,13 +428,53 @@ public class Level {
                 observer.levelLost();
             }
         }
-        if (remainingPellets() == 0) {
+        int remaining = remainingPellets();
+        if (remaining == 0) {
             for (LevelObserver observer : observers) {
                 observer.levelWon();
             }
+        } else if (isAnyPlayerAlive() && !canReachPellets(remaining)) {
+            for (LevelObserver observer : observers) {
+                observer.levelUnwinnable();
+            }
         }
     }
 
+    /**
+     * Determines whether pellets remain that no living player can reach, so
+     * the level can no longer be won.
+     *
+     * @return <code>true</code> iff pellets remain and none of them can be
+     *         reached by a living player.
+     */
+    public boolean isUnwinnable() {
+        int remaining = remainingPellets();
+        return remaining > 0 && !canReachPellets(remaining);
+    }
+
+    /**
+     * Determines whether a living player can reach one of the remaining
+     * pellets, using the per-component pellet counts of the pellet layer.
+     * Pellets stored as units are not counted per component, so they are
+     * assumed to be reachable.
+     *
+     * @param remaining
+     *            The number of remaining pellets.
+     * @return <code>true</code> iff a pellet can be reached.
+     */
+    private boolean canReachPellets(int remaining) {
+        if (remaining > pellets.remaining()) {
+            return true;
+        }
+        for (Player player : players) {
+            if (player.isAlive() && player.hasSquare()
+                && pellets.remainingReachableFrom(player.getSquare()) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns <code>true</code> iff at least one of the players in this level
      * is alive.
@@ -297,19 +497,9 @@ public class Level {
      * @return The amount of pellets remaining on the board.
      */
     public int remainingPellets() {
-        Board board = getBoard();
-        int pellets = 0;
-        for (int x = 0; x < board.getWidth(); x++) {
-            for (int y = 0; y < board.getHeight(); y++) {
-                for (Unit unit : board.squareAt(x, y).getOccupants()) {
-                    if (unit instanceof Pellet) {
-                        pellets++;
-                    }
-                }
-            }
-        }
-        assert pellets >= 0;
-        return pellets;
+        int count = pellets.remaining() + getBoard().countOccupants(UnitKind.PELLET);
+        assert count >= 0;
+        return count;
     }
 
     /**
@@ -371,5 +561,26 @@ public class Level {
          * this event is received.
          */
         void levelLost();
+
+        /**
+         * Pellets remain, but none of them can be reached by a living player,
+         * so the level can no longer be won. Observers are told again after
+         * every move, like for {@link #levelWon()}.
+         */
+        default void levelUnwinnable() {
+        }
+
+        /**
+         * The units or pellets on a square changed: a unit left or entered
+         * it, or a unit on it ate its pellet or died. A move reports both
+         * its source and its destination. Observers are told while the move
+         * holds the lock of the level, so they should only take note of the
+         * square.
+         *
+         * @param square
+         *            The square that changed.
+         */
+        default void squareChanged(Square square) {
+        }
     }
 }
@@ -81,11 +81,30 @@ public class LevelFactory {
      * @return A new level for the board.
      */
     public Level createLevel(Board board, List<Ghost> ghosts, List<Square> startPositions) {
+        return createLevel(board, ghosts, startPositions, PelletLayer.empty());
+    }
+
+    /**
+     * Creates a new level from the provided data.
+     *
+     * @param board
+     *            The board with all ghosts occupying their squares.
+     * @param ghosts
+     *            A list of all ghosts on the board.
+     * @param startPositions
+     *            A list of squares from which players may start the game.
+     * @param pellets
+     *            The pellets on the board that are not stored as units.
+     * @return A new level for the board.
+     */
+    public Level createLevel(Board board, List<Ghost> ghosts, List<Square> startPositions,
+                             PelletLayer pellets) {
 
         // We'll adopt the simple collision map for now.
         CollisionMap collisionMap = new PlayerCollisions(pointCalculator);
 
-        return new Level(board, ghosts, startPositions, collisionMap);
+        return new Level(board, ghosts, startPositions, collisionMap, pellets,
+            sprites.getClock());
     }
 
     /**
@@ -119,6 +138,63 @@ public class LevelFactory {
         return new Pellet(PELLET_VALUE, sprites.getPelletSprite());
     }
 
+    /**
+     * Determines whether a pellet can be kept in the pellet layers of this
+     * factory instead of as a unit.
+     *
+     * @param pellet
+     *            The pellet to keep.
+     * @return <code>true</code> iff the pellet has the default value.
+     */
+    boolean isLayerPellet(Pellet pellet) {
+        return pellet.getValue() == PELLET_VALUE;
+    }
+
+    /**
+     * Creates a new pellet layer for the board, with a pellet of the default
+     * value on each of the given squares.
+     *
+     * @param board
+     *            The board the layer covers.
+     * @param squares
+     *            The squares of the board that hold a pellet.
+     * @return The new pellet layer.
+     */
+    public PelletLayer createPelletLayer(Board board, Collection<Square> squares) {
+        PelletLayer layer = createPelletLayer(board);
+        for (Square square : squares) {
+            layer.add(square.getIndex());
+        }
+        return layer;
+    }
+
+    /**
+     * Creates a new pellet layer for the board, with a pellet of the default
+     * value on each square that has one in the compiled map.
+     *
+     * @param board
+     *            The board the layer covers.
+     * @param map
+     *            The compiled map of the board.
+     * @return The new pellet layer.
+     */
+    public PelletLayer createPelletLayer(Board board, CompiledMap map) {
+        PelletLayer layer = createPelletLayer(board);
+        int words = CompiledMap.words(map.getWidth() * map.getHeight());
+        for (int word = 0; word < words; word++) {
+            layer.addWord(word, map.pelletWord(word));
+        }
+        return layer;
+    }
+
+    private PelletLayer createPelletLayer(Board board) {
+        if (board.getTopology() == null) {
+            return new PelletLayer(board.getWidth(), board.getHeight(), PELLET_VALUE,
+                sprites.getPelletSprite());
+        }
+        return new PelletLayer(board.getTopology(), PELLET_VALUE, sprites.getPelletSprite());
+    }
+
     /**
      * Implementation of an NPC that wanders around randomly.
      *
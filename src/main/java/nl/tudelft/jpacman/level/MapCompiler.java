@@ -0,0 +1,196 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+
+/**
+ * Compiles text maps, in the format read by {@link MapParser}, into the
+ * binary format of {@link CompiledMap}.
+ */
+public final class MapCompiler {
+
+    /**
+     * The number of columns of the map.
+     */
+    private final int width;
+
+    /**
+     * The number of rows of the map.
+     */
+    private final int height;
+
+    /**
+     * The bitset of the walls, one bit per square index.
+     */
+    private final long[] walls;
+
+    /**
+     * The bitset of the pellets, one bit per square index.
+     */
+    private final long[] pellets;
+
+    /**
+     * The indices of the start positions, in column order.
+     */
+    private final int[] startPositions;
+
+    /**
+     * The indices of the squares with a ghost, in column order.
+     */
+    private final int[] ghosts;
+
+    /**
+     * Reads a text map into bitsets and index lists.
+     *
+     * @param text
+     *            The rows of the map, top row first.
+     */
+    private MapCompiler(List<String> text) {
+        MapParser.checkMapFormat(text);
+        this.width = text.get(0).length();
+        this.height = text.size();
+        this.walls = new long[CompiledMap.words(width * height)];
+        this.pellets = new long[walls.length];
+        int[] starts = new int[width * height];
+        int[] ghostPositions = new int[width * height];
+        int startCount = 0;
+        int ghostCount = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int index = y * width + x;
+                char c = text.get(y).charAt(x);
+                if (c == 'P') {
+                    starts[startCount++] = index;
+                } else if (c == 'G') {
+                    ghostPositions[ghostCount++] = index;
+                } else {
+                    addSquare(index, x, y, c);
+                }
+            }
+        }
+        this.startPositions = Arrays.copyOf(starts, startCount);
+        this.ghosts = Arrays.copyOf(ghostPositions, ghostCount);
+    }
+
+    private void addSquare(int index, int x, int y, char c) {
+        switch (c) {
+            case ' ':
+                break;
+            case '#':
+                walls[index / Long.SIZE] |= 1L << index;
+                break;
+            case '.':
+                pellets[index / Long.SIZE] |= 1L << index;
+                break;
+            default:
+                throw new PacmanConfigurationException("Invalid character at "
+                    + x + "," + y + ": " + c);
+        }
+    }
+
+    /**
+     * Compiles a text map.
+     *
+     * @param text
+     *            The rows of the map, top row first.
+     * @param target
+     *            The stream to write the compiled map to. It is not closed.
+     * @throws IOException
+     *             when the compiled map could not be written.
+     * @throws PacmanConfigurationException
+     *             when the text is not a valid map.
+     */
+    public static void compile(List<String> text, OutputStream target) throws IOException {
+        new MapCompiler(text).write(target);
+    }
+
+    /**
+     * Compiles a text map in memory.
+     *
+     * @param text
+     *            The rows of the map, top row first.
+     * @return The compiled map.
+     * @throws PacmanConfigurationException
+     *             when the text is not a valid map.
+     */
+    static CompiledMap compile(List<String> text) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            compile(text, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return CompiledMap.wrap(out.toByteArray());
+    }
+
+    /**
+     * Compiles a text map file into a compiled map file.
+     *
+     * @param source
+     *            The text map.
+     * @param target
+     *            The file to write the compiled map to.
+     * @throws IOException
+     *             when either file could not be accessed.
+     * @throws PacmanConfigurationException
+     *             when the text is not a valid map.
+     */
+    public static void compile(Path source, Path target) throws IOException {
+        List<String> text = Files.readAllLines(source, StandardCharsets.UTF_8);
+        try (OutputStream out = Files.newOutputStream(target)) {
+            compile(text, out);
+        }
+    }
+
+    private void write(OutputStream target) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target));
+        out.writeInt(CompiledMap.MAGIC);
+        out.writeInt(CompiledMap.VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        writeIndices(out, startPositions);
+        writeIndices(out, ghosts);
+        for (long word : walls) {
+            out.writeLong(word);
+        }
+        for (long word : pellets) {
+            out.writeLong(word);
+        }
+        out.flush();
+    }
+
+    private static void writeIndices(DataOutputStream out, int[] indices) throws IOException {
+        out.writeInt(indices.length);
+        for (int index : indices) {
+            out.writeInt(index);
+        }
+    }
+
+    /**
+     * Compiles a text map file from the command line.
+     *
+     * @param args
+     *            The text map and the target file.
+     * @throws IOException
+     *             when either file could not be accessed.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: MapCompiler <map.txt> <map.jpm>");
+            return;
+        }
+        compile(Paths.get(args[0]), Paths.get(args[1]));
+    }
+}
@@ -1,16 +1,22 @@
 package nl.tudelft.jpacman.level;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import nl.tudelft.jpacman.PacmanConfigurationException;
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.BoardTopology;
+import nl.tudelft.jpacman.board.ChunkedBoard;
 import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.board.UnitKind;
 import nl.tudelft.jpacman.npc.Ghost;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
@@ -21,6 +27,27 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
  */
 public class MapParser {
 
+    /**
+     * The number of bytes read from an input stream at a time.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Masks a byte to its unsigned value.
+     */
+    private static final int BYTE_MASK = 0xFF;
+
+    /**
+     * The initial length of the first row of a map read from a stream, before
+     * its width is known.
+     */
+    private static final int INITIAL_WIDTH = 64;
+
+    /**
+     * The largest length of an array the virtual machine reliably allocates.
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
     /**
      * The factory that creates the levels.
      */
@@ -32,7 +59,13 @@ public class MapParser {
     private final BoardFactory boardCreator;
 
     /**
-     * Creates a new map parser.
+     * The maps read from resources so far.
+     */
+    private final MapTemplateCache templates;
+
+    /**
+     * Creates a new map parser, keeping maps read from resources in the
+     * {@link MapTemplateCache#getShared() shared cache}.
      *
      * @param levelFactory
      *            The factory providing the NPC objects and the level.
@@ -40,8 +73,24 @@ public class MapParser {
      *            The factory providing the Square objects and the board.
      */
     public MapParser(LevelFactory levelFactory, BoardFactory boardFactory) {
+        this(levelFactory, boardFactory, MapTemplateCache.getShared());
+    }
+
+    /**
+     * Creates a new map parser.
+     *
+     * @param levelFactory
+     *            The factory providing the NPC objects and the level.
+     * @param boardFactory
+     *            The factory providing the Square objects and the board.
+     * @param templateCache
+     *            The cache for maps read from resources.
+     */
+    public MapParser(LevelFactory levelFactory, BoardFactory boardFactory,
+                     MapTemplateCache templateCache) {
         this.levelCreator = levelFactory;
         this.boardCreator = boardFactory;
+        this.templates = templateCache;
     }
 
     /**
@@ -72,8 +121,7 @@ public class MapParser {
 
         makeGrid(map, width, height, grid, ghosts, startPositions);
 
-        Board board = boardCreator.createBoard(grid);
-        return levelCreator.createLevel(board, ghosts, startPositions);
+        return createLevel(grid, ghosts, startPositions);
     }
 
     private void makeGrid(char[][] map, int width, int height,
@@ -86,6 +134,66 @@ public class MapParser {
         }
     }
 
+    /**
+     * Creates the board and level from a completely filled grid. Ghosts and
+     * start positions are listed in column order, regardless of the order in
+     * which the squares were parsed. The pellets placed by {@link #addSquare}
+     * are moved into the level's {@link PelletLayer}.
+     *
+     * @param grid
+     *            The grid of squares with grid[x][y] being the square at
+     *            column x, row y.
+     * @param ghosts
+     *            The ghosts placed by {@link #addSquare}, on their squares.
+     * @param startPositions
+     *            The start positions found by {@link #addSquare}.
+     * @return The level on the grid.
+     */
+    private Level createLevel(Square[][] grid, List<Ghost> ghosts,
+                              List<Square> startPositions) {
+        List<Square> pelletSquares = takePellets(grid);
+        Board board = boardCreator.createBoard(grid);
+        Comparator<Square> columnOrder = Comparator
+            .comparingInt((Square square) -> square.getIndex() % grid.length)
+            .thenComparingInt(square -> square.getIndex() / grid.length);
+        ghosts.sort(Comparator.comparing(Ghost::getSquare, columnOrder));
+        startPositions.sort(columnOrder);
+        PelletLayer pellets = levelCreator.createPelletLayer(board, pelletSquares);
+        return levelCreator.createLevel(board, ghosts, startPositions, pellets);
+    }
+
+    /**
+     * Takes the pellets placed by {@link #addSquare} off the squares of the
+     * grid, so the level keeps them in its {@link PelletLayer} instead of as
+     * units. Pellets the layer cannot represent stay on their squares.
+     *
+     * @param grid
+     *            The grid of squares with grid[x][y] being the square at
+     *            column x, row y.
+     * @return The squares the pellets were taken from.
+     */
+    private List<Square> takePellets(Square[][] grid) {
+        List<Square> squares = new ArrayList<>();
+        for (Square[] column : grid) {
+            for (Square square : column) {
+                if (square.hasOccupant(UnitKind.PELLET) && takePellet(square)) {
+                    squares.add(square);
+                }
+            }
+        }
+        return squares;
+    }
+
+    private boolean takePellet(Square square) {
+        for (Unit unit : square.getOccupants()) {
+            if (unit.getKind() == UnitKind.PELLET && levelCreator.isLayerPellet((Pellet) unit)) {
+                unit.leaveSquare();
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Adds a square to the grid based on a given character. These
      * character come from the map files and describe the type
@@ -151,8 +259,8 @@ public class MapParser {
     }
 
     /**
-     * Parses the list of strings into a 2-dimensional character array and
-     * passes it on to {@link #parseMap(char[][])}.
+     * Parses the list of strings row by row, without copying it into a
+     * character array first.
      *
      * @param text
      *            The plain text, with every entry in the list being a equally
@@ -162,19 +270,20 @@ public class MapParser {
      * @throws PacmanConfigurationException If text lines are not properly formatted.
      */
     public Level parseMap(List<String> text) {
-
         checkMapFormat(text);
 
         int height = text.size();
         int width = text.get(0).length();
-
-        char[][] map = new char[width][height];
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                map[x][y] = text.get(y).charAt(x);
+        Square[][] grid = new Square[width][height];
+        List<Ghost> ghosts = new ArrayList<>();
+        List<Square> startPositions = new ArrayList<>();
+        for (int y = 0; y < height; y++) {
+            String line = text.get(y);
+            for (int x = 0; x < width; x++) {
+                addSquare(grid, ghosts, startPositions, x, y, line.charAt(x));
             }
         }
-        return parseMap(map);
+        return createLevel(grid, ghosts, startPositions);
     }
 
     /**
@@ -182,24 +291,20 @@ public class MapParser {
      * @param text Map to be checked
      * @throws PacmanConfigurationException if map is not OK.
      */
-    private void checkMapFormat(List<String> text) {
+    static void checkMapFormat(List<String> text) {
         if (text == null) {
             throw new PacmanConfigurationException(
                 "Input text cannot be null.");
         }
-
         if (text.isEmpty()) {
             throw new PacmanConfigurationException(
                 "Input text must consist of at least 1 row.");
         }
-
         int width = text.get(0).length();
-
         if (width == 0) {
             throw new PacmanConfigurationException(
                 "Input text lines cannot be empty.");
         }
-
         for (String line : text) {
             if (line.length() != width) {
                 throw new PacmanConfigurationException(
@@ -209,29 +314,172 @@ public class MapParser {
     }
 
     /**
-     * Parses the provided input stream as a character stream and passes it
-     * result to {@link #parseMap(List)}.
+     * Parses the provided input stream in a single pass. The stream is read
+     * in fixed size chunks, and the squares of each row are created as the
+     * row is read, so apart from the squares themselves the parse keeps no
+     * copy of the map. Row widths are checked as soon as a row ends. The
+     * grid is allocated at its final size once the last row is read. Lines
+     * may end in <code>\n</code>,
+     * <code>\r\n</code> or <code>\r</code>, and the last line does not need
+     * a line terminator. Every byte is one square, so maps must be ASCII.
      *
      * @param source
      *            The input stream that will be read.
      * @return The parsed level as represented by the text on the input stream.
      * @throws IOException
      *             when the source could not be read.
+     * @throws PacmanConfigurationException If text lines are not properly formatted.
      */
     public Level parseMap(InputStream source) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-            source, "UTF-8"))) {
-            List<String> lines = new ArrayList<>();
-            while (reader.ready()) {
-                lines.add(reader.readLine());
+        try (InputStream input = source) {
+            RowBuilder rows = new RowBuilder();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            boolean afterCarriageReturn = false;
+            int read = input.read(buffer);
+            while (read >= 0) {
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer[i];
+                    if (b == '\r') {
+                        rows.endRow();
+                    } else if (b != '\n') {
+                        rows.add(b);
+                    } else if (!afterCarriageReturn) {
+                        rows.endRow();
+                    }
+                    afterCarriageReturn = b == '\r';
+                }
+                read = input.read(buffer);
             }
-            return parseMap(lines);
+            return rows.parse();
         }
     }
 
     /**
-     * Parses the provided input stream as a character stream and passes it
-     * result to {@link #parseMap(List)}.
+     * Creates a level from a map compiled by {@link MapCompiler}, without
+     * any text parsing.
+     *
+     * @param map
+     *            The compiled map.
+     * @return The level as represented by the compiled map.
+     */
+    public Level parseMap(CompiledMap map) {
+        return parseMap(map, null);
+    }
+
+    /**
+     * Creates a level from a compiled map, with all squares created up front
+     * if it has no topology yet, or on demand if it does.
+     *
+     * @param map
+     *            The compiled map.
+     * @param topology
+     *            The topology of the map, or <code>null</code> if the board
+     *            needs a topology of its own.
+     * @return The level as represented by the compiled map.
+     */
+    private Level parseMap(CompiledMap map, BoardTopology topology) {
+        int width = map.getWidth();
+        if (topology != null) {
+            return createLevel(boardCreator.createBoard(topology,
+                (x, y) -> terrainSquare(map, y * width + x)), map);
+        }
+        int height = map.getHeight();
+        Square[][] grid = new Square[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                grid[x][y] = terrainSquare(map, y * width + x);
+            }
+        }
+        return createLevel(boardCreator.createBoard(grid), map);
+    }
+
+    /**
+     * Places the ghosts, start positions and pellets of a compiled map on a
+     * board of its squares and creates the level. The compiled map lists
+     * ghosts and start positions in column order already.
+     *
+     * @param board
+     *            The board of the compiled map.
+     * @param map
+     *            The compiled map.
+     * @return The level on the board.
+     */
+    private Level createLevel(Board board, CompiledMap map) {
+        int width = map.getWidth();
+        List<Square> startPositions = new ArrayList<>();
+        for (int index : map.getStartPositions()) {
+            startPositions.add(board.squareAt(index % width, index / width));
+        }
+        List<Ghost> ghosts = new ArrayList<>();
+        for (int index : map.getGhosts()) {
+            Ghost ghost = levelCreator.createGhost();
+            ghosts.add(ghost);
+            ghost.occupy(board.squareAt(index % width, index / width));
+        }
+        PelletLayer pellets = levelCreator.createPelletLayer(board, map);
+        return levelCreator.createLevel(board, ghosts, startPositions, pellets);
+    }
+
+    private Square terrainSquare(CompiledMap map, int index) {
+        if (map.isWall(index)) {
+            return boardCreator.createWall();
+        }
+        return boardCreator.createGround();
+    }
+
+    /**
+     * Memory maps a file written by {@link MapCompiler} and creates a level
+     * from it.
+     *
+     * @param file
+     *            The compiled map file.
+     * @return The level as represented by the compiled map.
+     * @throws IOException
+     *             when the file could not be mapped.
+     */
+    public Level parseCompiledMap(Path file) throws IOException {
+        return parseMap(CompiledMap.load(file));
+    }
+
+    /**
+     * Memory maps a file written by {@link MapCompiler} and creates a level on
+     * a {@link ChunkedBoard}, for maps too large to create all squares of.
+     * Squares are created from the mapped file when they are first needed;
+     * start positions are pinned, and the pellets are read straight from the
+     * file into the level's {@link PelletLayer}.
+     *
+     * @param file
+     *            The compiled map file.
+     * @param chunkSize
+     *            The number of rows and columns of squares in a chunk.
+     * @param maximumSquares
+     *            The number of squares the board may keep loaded.
+     * @return The level as represented by the compiled map.
+     * @throws IOException
+     *             when the file could not be mapped.
+     */
+    public Level parseChunkedMap(Path file, int chunkSize, long maximumSquares)
+        throws IOException {
+        CompiledMap map = CompiledMap.load(file);
+        int width = map.getWidth();
+        ChunkedBoard board = boardCreator.createChunkedBoard(width, map.getHeight(),
+            chunkSize, maximumSquares, (x, y) -> terrainSquare(map, y * width + x));
+        for (int index : map.getStartPositions()) {
+            board.pin(board.squareAt(index % width, index / width));
+        }
+        return createLevel(board, map);
+    }
+
+    /**
+     * Reads a map resource and creates a level from it. The map is compiled
+     * once and kept in the parser's {@link MapTemplateCache}, so later levels
+     * from the same resource neither read nor parse it again. Their boards
+     * share the {@link BoardTopology} of the template and create squares
+     * only when they are first used, so a level costs memory for its units
+     * and the squares they touch rather than for the whole map. Parsers that
+     * do not {@link #supportsTemplates() support templates} read the resource
+     * with {@link #parseMap(InputStream)} instead, so their squares and units
+     * are created as they expect.
      *
      * @param mapName
      *            Name of a resource that will be read.
@@ -244,12 +492,33 @@ public class MapParser {
         justification = "try with resources always cleans up / false positive in java 11"
     )
     public Level parseMap(String mapName) throws IOException {
-        try (InputStream boardStream = MapParser.class.getResourceAsStream(mapName)) {
-            if (boardStream == null) {
-                throw new PacmanConfigurationException("Could not get resource for: " + mapName);
+        URL resource = MapParser.class.getResource(mapName);
+        if (resource == null) {
+            throw new PacmanConfigurationException("Could not get resource for: " + mapName);
+        }
+        if (!supportsTemplates()) {
+            try (InputStream boardStream = resource.openStream()) {
+                return parseMap(boardStream);
             }
-            return parseMap(boardStream);
         }
+        MapTemplateCache.Template template = templates.get(resource, boardCreator);
+        return parseMap(template.getMap(), template.getTopology());
+    }
+
+    /**
+     * Determines whether levels from map resources may be created from the
+     * compiled templates of the parser's {@link MapTemplateCache}, which
+     * place squares, ghosts and pellets without calling {@link #addSquare},
+     * {@link #makeGhostSquare} or {@link LevelFactory#createPellet()}. By
+     * default only this class with a plain {@link LevelFactory} uses them;
+     * subclasses that create their squares and units as this class does can
+     * opt in by returning <code>true</code>.
+     *
+     * @return <code>true</code> iff {@link #parseMap(String)} may use
+     *         compiled templates.
+     */
+    protected boolean supportsTemplates() {
+        return getClass() == MapParser.class && levelCreator.getClass() == LevelFactory.class;
     }
 
     /**
@@ -258,4 +527,158 @@ public class MapParser {
     protected BoardFactory getBoardCreator() {
         return boardCreator;
     }
+
+    /**
+     * Returns the length to grow an array to, to hold at least one more
+     * element.
+     *
+     * @param length
+     *            The current length of the array.
+     * @return The new length.
+     */
+    private static int grow(int length) {
+        if (length >= MAX_ARRAY_LENGTH) {
+            throw new PacmanConfigurationException("Input text is too large.");
+        }
+        return (int) Math.min(2L * length + 1, MAX_ARRAY_LENGTH);
+    }
+
+    /**
+     * Creates the squares of a map that is fed one byte at a time, row by
+     * row, with one byte per square. The width of the map is fixed by the
+     * first row and every later row is checked as soon as it ends.
+     */
+    private final class RowBuilder {
+
+        /**
+         * The complete rows of squares, top row first.
+         */
+        private final List<Square[]> rows = new ArrayList<>();
+
+        /**
+         * The ghosts placed so far.
+         */
+        private final List<Ghost> ghosts = new ArrayList<>();
+
+        /**
+         * The start positions found so far.
+         */
+        private final List<Square> startPositions = new ArrayList<>();
+
+        /**
+         * The squares of the current row, or <code>null</code> if no square
+         * of it was read yet.
+         */
+        private Square[] row;
+
+        /**
+         * The width of the map, or -1 as long as the first row is not
+         * complete.
+         */
+        private int width = -1;
+
+        /**
+         * The column of the next byte in the current row.
+         */
+        private int x;
+
+        /**
+         * The grid {@link #addSquare} places a square in. Every column is the
+         * same array {@link #sharedColumn}, as only one square is placed at a
+         * time, so the grid takes memory for one column only.
+         */
+        private Square[][] scratch = new Square[0][];
+
+        /**
+         * The column shared by all columns of {@link #scratch}.
+         */
+        private Square[] sharedColumn = new Square[0];
+
+        /**
+         * Creates the next square of the current row.
+         *
+         * @param b
+         *            The byte describing the square.
+         */
+        void add(byte b) {
+            if (x == width) {
+                throw new PacmanConfigurationException(
+                    "Input text lines are not of equal width.");
+            }
+            if (row == null) {
+                row = newRow();
+            } else if (x == row.length) {
+                row = Arrays.copyOf(row, grow(row.length));
+            }
+            row[x] = createSquare(x, rows.size(), (char) (b & BYTE_MASK));
+            x++;
+        }
+
+        private Square[] newRow() {
+            if (width < 0) {
+                return new Square[INITIAL_WIDTH];
+            }
+            return new Square[width];
+        }
+
+        private Square createSquare(int column, int y, char c) {
+            if (y >= sharedColumn.length) {
+                sharedColumn = new Square[grow(y)];
+                Arrays.fill(scratch, sharedColumn);
+            }
+            if (column >= scratch.length) {
+                scratch = new Square[grow(column)][];
+                Arrays.fill(scratch, sharedColumn);
+            }
+            addSquare(scratch, ghosts, startPositions, column, y, c);
+            Square square = sharedColumn[y];
+            sharedColumn[y] = null;
+            return square;
+        }
+
+        /**
+         * Ends the current row.
+         */
+        void endRow() {
+            if (width < 0) {
+                if (x == 0) {
+                    throw new PacmanConfigurationException(
+                        "Input text lines cannot be empty.");
+                }
+                width = x;
+                row = Arrays.copyOf(row, width);
+            } else if (x != width) {
+                throw new PacmanConfigurationException(
+                    "Input text lines are not of equal width.");
+            }
+            rows.add(row);
+            row = null;
+            x = 0;
+        }
+
+        /**
+         * Creates the level from the rows read. A last row without line
+         * terminator is ended first.
+         *
+         * @return The level on the parsed map.
+         */
+        Level parse() {
+            if (x > 0) {
+                endRow();
+            }
+            if (rows.isEmpty()) {
+                throw new PacmanConfigurationException(
+                    "Input text must consist of at least 1 row.");
+            }
+            int height = rows.size();
+            Square[][] grid = new Square[width][height];
+            for (int y = 0; y < height; y++) {
+                Square[] squares = rows.set(y, null);
+                for (int column = 0; column < width; column++) {
+                    grid[column][y] = squares[column];
+                }
+            }
+            return createLevel(grid, ghosts, startPositions);
+        }
+    }
 }
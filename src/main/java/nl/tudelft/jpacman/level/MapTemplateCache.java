@@ -0,0 +1,198 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.BoardTopology;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Keeps the maps read by {@link MapParser#parseMap(String)}, so a map
+ * resource that is turned into many levels is only read, checked and
+ * compiled once. Later levels are instantiated from the compiled map and
+ * share the {@link BoardTopology} of the template.
+ *
+ * <p>Maps are keyed by the class of the {@link BoardFactory}, which decides
+ * which squares can be walked on, and by the resource with its modification
+ * time and length, so a changed resource is never served from an old copy
+ * and a hit does not read the resource. Resources that report neither are
+ * keyed by a hash of their content instead. The cache holds a bounded number
+ * of squares and evicts the least recently used maps first.</p>
+ */
+public class MapTemplateCache {
+
+    /**
+     * The number of squares the shared cache holds at most.
+     */
+    public static final long DEFAULT_MAXIMUM_SQUARES = 1L << 24;
+
+    /**
+     * The cache shared by all map parsers that were not given their own.
+     */
+    private static final MapTemplateCache SHARED = new MapTemplateCache(DEFAULT_MAXIMUM_SQUARES);
+
+    /**
+     * The compiled maps with their topologies.
+     */
+    private final Cache<String, Template> templates;
+
+    /**
+     * Creates a new, empty cache.
+     *
+     * @param maximumSquares
+     *            The total number of squares of the maps the cache holds at
+     *            most.
+     */
+    public MapTemplateCache(long maximumSquares) {
+        this.templates = CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumWeight(maximumSquares)
+            .weigher((String key, Template template) -> template.squares())
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * @return The cache shared by all map parsers that were not given their
+     *         own.
+     */
+    public static MapTemplateCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the template of a map resource, compiling it if the resource
+     * was not seen before in the same version with the same kind of board
+     * factory. Concurrent calls for the same map compile it once.
+     *
+     * @param resource
+     *            The map resource.
+     * @param boardFactory
+     *            The factory that will create the squares of the boards.
+     * @return The template of the map.
+     * @throws IOException
+     *             when the resource could not be read.
+     * @throws nl.tudelft.jpacman.PacmanConfigurationException
+     *             If the text lines are not properly formatted.
+     */
+    Template get(URL resource, BoardFactory boardFactory) throws IOException {
+        URLConnection connection = resource.openConnection();
+        try (InputStream input = connection.getInputStream()) {
+            String key = boardFactory.getClass().getName() + '@' + resource;
+            long modified = connection.getLastModified();
+            long length = connection.getContentLengthLong();
+            if (modified == 0L || length < 0L) {
+                byte[] content = input.readAllBytes();
+                key += '#' + Hashing.murmur3_128().hashBytes(content).toString();
+                return get(key, () -> new Template(content, boardFactory));
+            }
+            key += '@' + Long.toString(modified) + '+' + length;
+            return get(key, () -> new Template(input.readAllBytes(), boardFactory));
+        }
+    }
+
+    private Template get(String key, Callable<Template> loader) throws IOException {
+        try {
+            return templates.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * @return The hits, misses and evictions of this cache so far.
+     */
+    public CacheStats stats() {
+        return templates.stats();
+    }
+
+    /**
+     * Removes all maps from this cache.
+     */
+    public void invalidateAll() {
+        templates.invalidateAll();
+    }
+
+    /**
+     * A compiled map, together with the topology of the boards created from
+     * it. Templates are immutable.
+     */
+    static final class Template {
+
+        /**
+         * The compiled map.
+         */
+        private final CompiledMap map;
+
+        /**
+         * The topology shared by the boards from this map.
+         */
+        private final BoardTopology topology;
+
+        /**
+         * Compiles a map and works out which of its squares the squares of a
+         * board factory make walkable.
+         *
+         * @param content
+         *            The bytes of the text map.
+         * @param boardFactory
+         *            The factory that will create the squares of the boards.
+         */
+        Template(byte[] content, BoardFactory boardFactory) {
+            List<String> text = new String(content, StandardCharsets.UTF_8).lines()
+                .collect(Collectors.toList());
+            this.map = MapCompiler.compile(text);
+            boolean walls = boardFactory.createWall().isAccessibleTo(null);
+            boolean ground = boardFactory.createGround().isAccessibleTo(null);
+            this.topology = new BoardTopology(map.getWidth(), map.getHeight(),
+                index -> isWalkable(index, walls, ground));
+        }
+
+        private boolean isWalkable(int index, boolean walls, boolean ground) {
+            if (map.isWall(index)) {
+                return walls;
+            }
+            return ground;
+        }
+
+        /**
+         * @return The compiled map.
+         */
+        CompiledMap getMap() {
+            return map;
+        }
+
+        /**
+         * @return The number of squares of the map, or
+         *         {@link Integer#MAX_VALUE} if it has more.
+         */
+        int squares() {
+            long squares = (long) topology.getWidth() * topology.getHeight();
+            return (int) Math.min(squares, Integer.MAX_VALUE);
+        }
+
+        /**
+         * @return The topology shared by the boards from this map.
+         */
+        BoardTopology getTopology() {
+            return topology;
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+
+/**
+ * Generates random mazes in the format read by {@link MapParser}, for
+ * benchmarks and stress tests on maps of any size. The same seed and
+ * settings always give the same maze.
+ *
+ * <p>Corridors run between cells at odd columns and rows, surrounded by a
+ * wall on every border. The cells are split into bands of rows, each carved
+ * as a perfect maze by its own random generator, so large mazes are carved
+ * in parallel and still do not depend on the number of cores. Each band is
+ * then connected to the band above it, extra walls are opened to form
+ * loops, and rooms are opened up. Pellets, players and ghosts are placed on
+ * the open squares last.</p>
+ */
+public class MazeGenerator {
+
+    /**
+     * The number of rows of cells carved as one band.
+     */
+    private static final int BAND_ROWS = 64;
+
+    /**
+     * The largest number of rows and columns of cells in a room.
+     */
+    private static final int MAXIMUM_ROOM = 4;
+
+    /**
+     * The smallest number of rows and columns of a maze: one cell surrounded
+     * by walls.
+     */
+    private static final int MINIMUM_SIZE = 3;
+
+    /**
+     * The number of ghosts on a maze unless set otherwise.
+     */
+    private static final int DEFAULT_GHOSTS = 4;
+
+    /**
+     * The number of cells next to a cell.
+     */
+    private static final int NEIGHBOURS = 4;
+
+    /**
+     * The number of attempts to find a free square for each unit.
+     */
+    private static final int PLACEMENT_ATTEMPTS = 1000;
+
+    /**
+     * The character of a wall.
+     */
+    private static final char WALL = '#';
+
+    /**
+     * The character of an open square without pellet.
+     */
+    private static final char EMPTY = ' ';
+
+    /**
+     * The character of a square with a pellet.
+     */
+    private static final char PELLET = '.';
+
+    /**
+     * The character of a start position.
+     */
+    private static final char PLAYER = 'P';
+
+    /**
+     * The character of a square with a ghost.
+     */
+    private static final char GHOST = 'G';
+
+    /**
+     * The seed of the random generator that the bands split theirs from
+     * and that places the players and ghosts.
+     */
+    private final long seed;
+
+    /**
+     * The chance that a wall between two corridors is opened.
+     */
+    private double loops;
+
+    /**
+     * The part of the cells opened up into rooms.
+     */
+    private double rooms;
+
+    /**
+     * The chance that an open square starts with a pellet.
+     */
+    private double pellets = 1.0;
+
+    /**
+     * The number of start positions.
+     */
+    private int players = 1;
+
+    /**
+     * The number of ghosts.
+     */
+    private int ghosts = DEFAULT_GHOSTS;
+
+    /**
+     * Creates a new generator of perfect mazes with a pellet on every open
+     * square, one player and four ghosts.
+     *
+     * @param seed
+     *            The seed of the mazes.
+     */
+    public MazeGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the chance that a wall between two corridors is opened, making
+     * loops. A maze without loops has exactly one path between any two
+     * squares; with a chance of 1 every wall between cells is opened.
+     *
+     * @param chance
+     *            The chance from 0 up to 1.
+     * @return This generator.
+     */
+    public MazeGenerator withLoops(double chance) {
+        this.loops = chance;
+        return this;
+    }
+
+    /**
+     * Sets the part of the cells that is opened up into rooms.
+     *
+     * @param density
+     *            The part of the cells from 0 up to 1.
+     * @return This generator.
+     */
+    public MazeGenerator withRooms(double density) {
+        this.rooms = density;
+        return this;
+    }
+
+    /**
+     * Sets the chance that an open square starts with a pellet.
+     *
+     * @param chance
+     *            The chance from 0 up to 1.
+     * @return This generator.
+     */
+    public MazeGenerator withPellets(double chance) {
+        this.pellets = chance;
+        return this;
+    }
+
+    /**
+     * Sets the number of start positions.
+     *
+     * @param count
+     *            The number of players that can start on the maze.
+     * @return This generator.
+     */
+    public MazeGenerator withPlayers(int count) {
+        this.players = count;
+        return this;
+    }
+
+    /**
+     * Sets the number of ghosts.
+     *
+     * @param count
+     *            The number of ghosts on the maze.
+     * @return This generator.
+     */
+    public MazeGenerator withGhosts(int count) {
+        this.ghosts = count;
+        return this;
+    }
+
+    /**
+     * Generates a maze.
+     *
+     * @param width
+     *            The number of columns, at least 3.
+     * @param height
+     *            The number of rows, at least 3.
+     * @return The maze with map[x][y] being the character at column x, row
+     *         y, as read by {@link MapParser#parseMap(char[][])}.
+     * @throws PacmanConfigurationException
+     *             when the maze is too small for its players and ghosts.
+     */
+    public char[][] generate(int width, int height) {
+        if (width < MINIMUM_SIZE || height < MINIMUM_SIZE) {
+            throw new PacmanConfigurationException(
+                "A maze needs at least 3x3 squares, not " + width + "x" + height);
+        }
+        char[][] map = new char[width][height];
+        SplittableRandom random = new SplittableRandom(seed);
+        int cellRows = (height - 1) / 2;
+        int bands = (cellRows + BAND_ROWS - 1) / BAND_ROWS;
+        SplittableRandom[] bandRandoms = new SplittableRandom[bands];
+        for (int band = 0; band < bands; band++) {
+            bandRandoms[band] = random.split();
+        }
+        IntStream.range(0, bands).parallel()
+            .forEach(band -> new Band(map, band).carve(bandRandoms[band]));
+        place(map, random, PLAYER, players);
+        place(map, random, GHOST, ghosts);
+        return map;
+    }
+
+    /**
+     * Generates a maze as lines of text.
+     *
+     * @param width
+     *            The number of columns, at least 3.
+     * @param height
+     *            The number of rows, at least 3.
+     * @return The rows of the maze, top row first, as read by
+     *         {@link MapParser#parseMap(List)}.
+     */
+    public List<String> generateLines(int width, int height) {
+        char[][] map = generate(width, height);
+        List<String> lines = new ArrayList<>(height);
+        char[] row = new char[width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                row[x] = map[x][y];
+            }
+            lines.add(new String(row));
+        }
+        return lines;
+    }
+
+    /**
+     * Generates a maze and creates a level on it.
+     *
+     * @param parser
+     *            The parser creating the board and units.
+     * @param width
+     *            The number of columns, at least 3.
+     * @param height
+     *            The number of rows, at least 3.
+     * @return The level on the new maze.
+     */
+    public Level generateLevel(MapParser parser, int width, int height) {
+        return parser.parseMap(generate(width, height));
+    }
+
+    private static void place(char[][] map, SplittableRandom random, char unit, int count) {
+        for (int i = 0; i < count; i++) {
+            int attempts = 0;
+            int x;
+            int y;
+            do {
+                if (attempts++ == PLACEMENT_ATTEMPTS) {
+                    throw new PacmanConfigurationException(
+                        "No free square left for " + unit + " in maze");
+                }
+                x = random.nextInt(map.length);
+                y = random.nextInt(map[0].length);
+            } while (map[x][y] != EMPTY && map[x][y] != PELLET);
+            map[x][y] = unit;
+        }
+    }
+
+    /**
+     * The squares of a band of cell rows: from the wall row above its first
+     * cell row down to its last cell row, and the rows below it if it is the
+     * last band. Bands write to disjoint rows, so they can be carved at
+     * the same time.
+     */
+    private final class Band {
+
+        /**
+         * The maze the band is part of, with map[x][y] the square at column
+         * x, row y.
+         */
+        private final char[][] map;
+
+        /**
+         * The number of columns of cells of the maze.
+         */
+        private final int cellColumns;
+
+        /**
+         * The row of the first cell of the band, counting cells from the
+         * top.
+         */
+        private final int firstCellRow;
+
+        /**
+         * The number of rows of cells in the band.
+         */
+        private final int cellRows;
+
+        /**
+         * Whether this is the bottom band, which also covers the bottom
+         * wall and a last row left over by an even height.
+         */
+        private final boolean last;
+
+        /**
+         * Creates the band with the given number.
+         *
+         * @param map
+         *            The maze the band is part of.
+         * @param band
+         *            The number of the band, counting from the top.
+         */
+        Band(char[][] map, int band) {
+            this.map = map;
+            this.cellColumns = (map.length - 1) / 2;
+            int totalRows = (map[0].length - 1) / 2;
+            this.firstCellRow = band * BAND_ROWS;
+            this.cellRows = Math.min(BAND_ROWS, totalRows - firstCellRow);
+            this.last = firstCellRow + cellRows == totalRows;
+        }
+
+        /**
+         * Carves the band and fills its open squares.
+         *
+         * @param random
+         *            The random generator of this band.
+         */
+        void carve(SplittableRandom random) {
+            int top = 2 * firstCellRow;
+            int bottom = top + 2 * cellRows - 1;
+            if (last) {
+                bottom = map[0].length - 1;
+            }
+            for (int x = 0; x < map.length; x++) {
+                for (int y = top; y <= bottom; y++) {
+                    map[x][y] = WALL;
+                }
+            }
+            carveMaze(random);
+            if (firstCellRow > 0) {
+                connectAbove(random);
+            }
+            openLoops(random);
+            openRooms(random);
+            fill(random, top, bottom);
+        }
+
+        /**
+         * Carves a perfect maze through all cells of the band with an
+         * iterative depth first search.
+         */
+        private void carveMaze(SplittableRandom random) {
+            boolean[] visited = new boolean[cellColumns * cellRows];
+            int[] stack = new int[visited.length];
+            int[] options = new int[NEIGHBOURS];
+            int size = 0;
+            stack[size++] = 0;
+            visited[0] = true;
+            open(0, 0);
+            while (size > 0) {
+                int cell = stack[size - 1];
+                int count = unvisitedNeighbours(cell, visited, options);
+                if (count == 0) {
+                    size--;
+                    continue;
+                }
+                int next = options[random.nextInt(count)];
+                visited[next] = true;
+                openBetween(cell, next);
+                stack[size++] = next;
+            }
+        }
+
+        private int unvisitedNeighbours(int cell, boolean[] visited, int[] options) {
+            int cx = cell % cellColumns;
+            int cy = cell / cellColumns;
+            int count = 0;
+            if (cx > 0 && !visited[cell - 1]) {
+                options[count++] = cell - 1;
+            }
+            if (cx < cellColumns - 1 && !visited[cell + 1]) {
+                options[count++] = cell + 1;
+            }
+            if (cy > 0 && !visited[cell - cellColumns]) {
+                options[count++] = cell - cellColumns;
+            }
+            if (cy < cellRows - 1 && !visited[cell + cellColumns]) {
+                options[count++] = cell + cellColumns;
+            }
+            return count;
+        }
+
+        /**
+         * Opens the wall row above the band at one random column, and at
+         * every other column with the chance of a loop.
+         */
+        private void connectAbove(SplittableRandom random) {
+            int door = random.nextInt(cellColumns);
+            int y = 2 * firstCellRow;
+            for (int cx = 0; cx < cellColumns; cx++) {
+                if (cx == door || random.nextDouble() < loops) {
+                    map[2 * cx + 1][y] = EMPTY;
+                }
+            }
+        }
+
+        /**
+         * Opens walls between neighbouring cells with the chance of a loop.
+         */
+        private void openLoops(SplittableRandom random) {
+            if (loops <= 0) {
+                return;
+            }
+            for (int cell = 0; cell < cellColumns * cellRows; cell++) {
+                if (cell % cellColumns < cellColumns - 1 && random.nextDouble() < loops) {
+                    openBetween(cell, cell + 1);
+                }
+                if (cell / cellColumns < cellRows - 1 && random.nextDouble() < loops) {
+                    openBetween(cell, cell + cellColumns);
+                }
+            }
+        }
+
+        /**
+         * Opens up rectangles of cells, including the walls between them,
+         * until about the requested part of the band is covered.
+         */
+        private void openRooms(SplittableRandom random) {
+            long area = Math.round(rooms * cellColumns * cellRows);
+            while (area > 0) {
+                int columns = 1 + random.nextInt(Math.min(MAXIMUM_ROOM, cellColumns));
+                int rows = 1 + random.nextInt(Math.min(MAXIMUM_ROOM, cellRows));
+                int left = 2 * random.nextInt(cellColumns - columns + 1) + 1;
+                int top = 2 * (firstCellRow + random.nextInt(cellRows - rows + 1)) + 1;
+                for (int x = left; x < left + 2 * columns - 1; x++) {
+                    for (int y = top; y < top + 2 * rows - 1; y++) {
+                        map[x][y] = EMPTY;
+                    }
+                }
+                area -= (long) columns * rows;
+            }
+        }
+
+        /**
+         * Puts pellets on the open squares of the band.
+         */
+        private void fill(SplittableRandom random, int top, int bottom) {
+            for (int x = 0; x < map.length; x++) {
+                for (int y = top; y <= bottom; y++) {
+                    if (map[x][y] == EMPTY && random.nextDouble() < pellets) {
+                        map[x][y] = PELLET;
+                    }
+                }
+            }
+        }
+
+        private void openBetween(int cell, int other) {
+            open(cell, other);
+            open(other, other);
+        }
+
+        /**
+         * Opens the square halfway between two cells, which is the cell
+         * itself if both are the same.
+         */
+        private void open(int cell, int other) {
+            int x = (cell % cellColumns) + (other % cellColumns) + 1;
+            int y = 2 * firstCellRow + (cell / cellColumns) + (other / cellColumns) + 1;
+            map[x][y] = EMPTY;
+        }
+    }
+
+    /**
+     * Writes a generated maze to a text file from the command line.
+     *
+     * @param args
+     *            The width, the height, the seed and the target file.
+     * @throws IOException
+     *             when the file could not be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: MazeGenerator <width> <height> <seed> <map.txt>");
+            return;
+        }
+        List<String> lines = new MazeGenerator(Long.parseLong(args[2]))
+            .generateLines(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+        Files.write(Paths.get(args[3]), lines, StandardCharsets.UTF_8);
+    }
+}
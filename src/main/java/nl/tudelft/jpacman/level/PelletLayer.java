@@ -0,0 +1,303 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.board.BoardTopology;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.board.UnitLayer;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+/**
+ * The pellets of a level, stored as one bit per square instead of one
+ * {@link Pellet} unit per square. All pellets in a layer have the same value
+ * and sprite. A {@link Pellet} is only created when a unit moves onto a square
+ * with a pellet, so collisions are handled exactly as for pellet units, or
+ * when a search for pellets on a square finds one, which makes it a pellet
+ * unit on that square for good.
+ */
+public class PelletLayer implements UnitLayer {
+
+    /**
+     * The number of bits in a word of {@link #words}.
+     */
+    private static final int WORD_SIZE = Long.SIZE;
+
+    /**
+     * The width of the board this layer covers.
+     */
+    private final int width;
+
+    /**
+     * The pellet bits, with bit <code>i</code> set iff the square with index
+     * <code>i</code> holds a pellet.
+     */
+    private final long[] words;
+
+    /**
+     * The point value of every pellet in this layer.
+     */
+    private final int value;
+
+    /**
+     * The sprite of every pellet in this layer.
+     */
+    private final Sprite sprite;
+
+    /**
+     * The number of set bits.
+     */
+    private int remaining;
+
+    /**
+     * The topology of the board, or <code>null</code> if pellets are not
+     * counted per component.
+     */
+    private final BoardTopology topology;
+
+    /**
+     * The number of pellets in every component of {@link #topology}, or
+     * <code>null</code> if pellets are not counted per component.
+     */
+    private final int[] componentPellets;
+
+    /**
+     * Creates a new layer without pellets.
+     *
+     * @param width
+     *            The width of the board this layer covers.
+     * @param height
+     *            The height of the board this layer covers.
+     * @param value
+     *            The point value of every pellet.
+     * @param sprite
+     *            The sprite of every pellet.
+     */
+    public PelletLayer(int width, int height, int value, Sprite sprite) {
+        this(width, height, value, sprite, null);
+    }
+
+    /**
+     * Creates a new layer without pellets, which counts its pellets per
+     * connected component of the board.
+     *
+     * @param topology
+     *            The topology of the board this layer covers.
+     * @param value
+     *            The point value of every pellet.
+     * @param sprite
+     *            The sprite of every pellet.
+     */
+    public PelletLayer(BoardTopology topology, int value, Sprite sprite) {
+        this(topology.getWidth(), topology.getHeight(), value, sprite, topology);
+    }
+
+    private PelletLayer(int width, int height, int value, Sprite sprite,
+                        BoardTopology topology) {
+        assert width >= 0 && height >= 0;
+        this.width = width;
+        this.words = new long[(width * height + WORD_SIZE - 1) / WORD_SIZE];
+        this.value = value;
+        this.sprite = sprite;
+        this.remaining = 0;
+        this.topology = topology;
+        if (topology == null) {
+            this.componentPellets = null;
+        } else {
+            this.componentPellets = new int[topology.getComponentCount()];
+        }
+    }
+
+    /**
+     * @return A layer without any pellets, for levels without a pellet layer.
+     */
+    public static PelletLayer empty() {
+        return new PelletLayer(0, 0, 0, null);
+    }
+
+    /**
+     * Puts a pellet on the square with the given index.
+     *
+     * @param index
+     *            The index of the square, as in {@link Square#getIndex()}.
+     */
+    public void add(int index) {
+        assert index >= 0 && index < words.length * WORD_SIZE;
+        long bit = 1L << index;
+        int word = index / WORD_SIZE;
+        if ((words[word] & bit) == 0) {
+            words[word] |= bit;
+            remaining++;
+            countInComponent(index, 1);
+        }
+    }
+
+    /**
+     * Puts pellets on the squares of a whole word of the bitset at once.
+     *
+     * @param word
+     *            The number of the word, covering squares
+     *            <code>64 * word</code> up to <code>64 * word + 63</code>.
+     * @param bits
+     *            The squares of the word to put a pellet on.
+     */
+    void addWord(int word, long bits) {
+        long added = bits & ~words[word];
+        if (added == 0) {
+            return;
+        }
+        words[word] |= added;
+        remaining += Long.bitCount(added);
+        for (long rest = added; rest != 0; rest &= rest - 1) {
+            countInComponent(word * WORD_SIZE + Long.numberOfTrailingZeros(rest), 1);
+        }
+    }
+
+    /**
+     * Removes the pellet from the square, if there was one.
+     *
+     * @param square
+     *            The square to remove the pellet from.
+     */
+    public void remove(Square square) {
+        int index = square.getIndex();
+        if (hasPellet(index)) {
+            words[index / WORD_SIZE] &= ~(1L << index);
+            remaining--;
+            countInComponent(index, -1);
+        }
+    }
+
+    private void countInComponent(int index, int delta) {
+        if (componentPellets == null) {
+            return;
+        }
+        int component = topology.component(index);
+        if (component >= 0) {
+            componentPellets[component] += delta;
+        }
+    }
+
+    /**
+     * Determines whether the square holds a pellet of this layer.
+     *
+     * @param square
+     *            The square to test.
+     * @return <code>true</code> iff the square holds a pellet.
+     */
+    public boolean hasPellet(Square square) {
+        return hasPellet(square.getIndex());
+    }
+
+    /**
+     * Determines whether the square at the given position holds a pellet of
+     * this layer.
+     *
+     * @param x
+     *            The <code>x</code> position (column) of the square.
+     * @param y
+     *            The <code>y</code> position (row) of the square.
+     * @return <code>true</code> iff the square holds a pellet.
+     */
+    public boolean hasPellet(int x, int y) {
+        return hasPellet(y * width + x);
+    }
+
+    /**
+     * Determines whether the square with the given index holds a pellet.
+     *
+     * @param index
+     *            The index of the square, as in {@link Square#getIndex()}.
+     * @return <code>true</code> iff the square holds a pellet.
+     */
+    public boolean hasPellet(int index) {
+        int word = index / WORD_SIZE;
+        return word < words.length && (words[word] & (1L << index)) != 0;
+    }
+
+    /**
+     * Finds the next square with a pellet, for visiting all pellets without
+     * testing every square:
+     * <code>for (int i = layer.nextPellet(0); i &gt;= 0; i = layer.nextPellet(i + 1))</code>.
+     *
+     * @param fromIndex
+     *            The index of the square to start looking at.
+     * @return The smallest index of a square with a pellet that is at least
+     *         <code>fromIndex</code>, or -1 if there is none.
+     */
+    public int nextPellet(int fromIndex) {
+        int word = fromIndex / WORD_SIZE;
+        if (word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << fromIndex);
+        while (bits == 0) {
+            word++;
+            if (word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+        return word * WORD_SIZE + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * @return The number of pellets left in this layer.
+     */
+    public int remaining() {
+        return remaining;
+    }
+
+    /**
+     * Counts the pellets a unit on the given square can walk to. Layers
+     * created without a topology cannot tell, and count all their pellets.
+     *
+     * @param square
+     *            The square to walk from.
+     * @return The number of pellets in this layer that can be reached from
+     *         the square.
+     */
+    public int remainingReachableFrom(Square square) {
+        if (componentPellets == null) {
+            return remaining;
+        }
+        int component = topology.component(square.getIndex());
+        if (component < 0) {
+            return 0;
+        }
+        return componentPellets[component];
+    }
+
+    /**
+     * @return The point value of every pellet in this layer.
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * @return The sprite of every pellet in this layer.
+     */
+    public Sprite getSprite() {
+        return sprite;
+    }
+
+    @Override
+    public Unit placeOccupant(Square square, Class<? extends Unit> type) {
+        if (!type.isAssignableFrom(Pellet.class) || !hasPellet(square)) {
+            return null;
+        }
+        Pellet pellet = createPellet();
+        remove(square);
+        pellet.occupy(square);
+        return pellet;
+    }
+
+    /**
+     * Creates a stand-in for a pellet of this layer, used to hand the pellet
+     * to the collision handlers.
+     *
+     * @return A new pellet with the value and sprite of this layer.
+     */
+    Pellet createPellet() {
+        return new Pellet(value, sprite);
+    }
+}
@@ -2,6 +2,7 @@ package nl.tudelft.jpacman.npc;
 
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.board.UnitKind;
 import nl.tudelft.jpacman.sprite.Sprite;
 
 import java.util.Map;
@@ -58,6 +59,7 @@ public abstract class Ghost extends Unit {
      * @param intervalVariation The variation of the interval.
      */
     protected Ghost(Map<Direction, Sprite> spriteMap, int moveInterval, int intervalVariation) {
+        super(UnitKind.GHOST);
         this.sprites = spriteMap;
         this.intervalVariation = intervalVariation;
         this.moveInterval = moveInterval;
@@ -1,14 +1,17 @@
 package nl.tudelft.jpacman.npc.ghost;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.board.UnitKind;
 
 /**
  * Navigation provides utility to navigate on {@link Square}s.
@@ -44,14 +47,17 @@ public final class Navigation {
         if (from.equals(to)) {
             return new ArrayList<>();
         }
+        if (traveller != null && isWalledOff(from, to)) {
+            return null;
+        }
 
         List<Node> targets = new ArrayList<>();
-        Set<Square> visited = new HashSet<>();
+        Visited visited = new Visited();
         targets.add(new Node(null, from, null));
         while (!targets.isEmpty()) {
             Node node = targets.remove(0);
             Square square = node.getSquare();
-            if (square.equals(to)) {
+            if (Visited.isSame(square, to)) {
                 return node.getPath();
             }
             visited.add(square);
@@ -60,8 +66,27 @@ public final class Navigation {
         return null;
     }
 
+    /**
+     * Determines from the components of the board that no walk leads from
+     * one square to another. Squares that cannot be walked on themselves are
+     * only ruled out as destination, as units may start on them.
+     *
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     * @return <code>true</code> if the destination certainly cannot be
+     *         reached.
+     */
+    private static boolean isWalledOff(Square from, Square to) {
+        Board board = from.getBoard();
+        return board != null && board == to.getBoard()
+            && from.isAccessibleTo(null)
+            && !board.sameComponent(from, to);
+    }
+
     private static void addNewTargets(Unit traveller, List<Node> targets,
-                                      Set<Square> visited, Node node, Square square) {
+                                      Visited visited, Node node, Square square) {
         for (Direction direction : Direction.values()) {
             Square target = square.getSquareAt(direction);
             if (!visited.contains(target)
@@ -85,22 +110,42 @@ public final class Navigation {
      */
     public static Unit findNearest(Class<? extends Unit> type,
                                              Square currentLocation) {
+        return findNearest(currentLocation, square -> findUnit(type, square));
+    }
+
+    /**
+     * Finds the nearest unit of the given kind and returns its location. This
+     * method will perform a breadth first search starting from the given
+     * square, skipping squares without such a unit by their occupant mask.
+     *
+     * @param kind
+     *            The kind of unit to search for.
+     * @param currentLocation
+     *            The starting location for the search.
+     * @return The nearest unit of the given kind, or <code>null</code> if no
+     *         such unit could be found.
+     */
+    public static Unit findNearest(UnitKind kind, Square currentLocation) {
+        return findNearest(currentLocation, square -> findUnit(kind, square));
+    }
+
+    private static Unit findNearest(Square currentLocation, Function<Square, Unit> finder) {
         List<Square> toDo = new ArrayList<>();
-        Set<Square> visited = new HashSet<>();
+        Visited visited = new Visited();
 
         toDo.add(currentLocation);
+        visited.add(currentLocation);
 
         while (!toDo.isEmpty()) {
             Square square = toDo.remove(0);
-            Unit unit = findUnit(type, square);
+            Unit unit = finder.apply(square);
             if (unit != null) {
                 assert unit.hasSquare();
                 return unit;
             }
-            visited.add(square);
             for (Direction direction : Direction.values()) {
                 Square newTarget = square.getSquareAt(direction);
-                if (!visited.contains(newTarget) && !toDo.contains(newTarget)) {
+                if (visited.add(newTarget)) {
                     toDo.add(newTarget);
                 }
             }
@@ -132,7 +177,10 @@ public final class Navigation {
     }
 
     /**
-     * Determines whether a square has an occupant of a certain type.
+     * Determines whether a square has an occupant of a certain type. Units of
+     * the type that a {@link nl.tudelft.jpacman.board.UnitLayer} of the board
+     * keeps for the square, such as the pellets of a level, are put on the
+     * square as occupants first.
      *
      * @param type
      *            The type to search for.
@@ -146,15 +194,109 @@ public final class Navigation {
      */
     @SuppressWarnings("unchecked")
     public static <T extends Unit> T findUnit(Class<T> type, Square square) {
-        for (Unit unit : square.getOccupants()) {
+        for (int i = 0; i < square.getOccupantCount(); i++) {
+            Unit unit = square.getOccupant(i);
             if (type.isInstance(unit)) {
                 assert unit.hasSquare();
                 return (T) unit;
             }
         }
+        Board board = square.getBoard();
+        if (board == null) {
+            return null;
+        }
+        return board.placeLayerOccupant(square, type);
+    }
+
+    /**
+     * Determines whether a square has an occupant of a certain kind.
+     *
+     * @param kind
+     *            The kind to search for.
+     * @param square
+     *            The square to search.
+     * @return A unit of the given kind, iff such a unit occupies this square,
+     *         or <code>null</code> of none does.
+     */
+    public static Unit findUnit(UnitKind kind, Square square) {
+        if (!square.hasOccupant(kind)) {
+            return null;
+        }
+        for (int i = 0; i < square.getOccupantCount(); i++) {
+            Unit unit = square.getOccupant(i);
+            if (unit.getKind() == kind) {
+                assert unit.hasSquare();
+                return unit;
+            }
+        }
         return null;
     }
 
+    /**
+     * Helper class to keep track of the squares a search has seen. Squares on
+     * a board are tracked by their index rather than by identity, since a
+     * {@link nl.tudelft.jpacman.board.ChunkedBoard} may create a new square
+     * for the same position while a search is running.
+     */
+    private static final class Visited {
+
+        /**
+         * The indices of the visited squares on a board.
+         */
+        private final BitSet indices = new BitSet();
+
+        /**
+         * The visited squares that are not on a board.
+         */
+        private final Set<Square> squares = new HashSet<>();
+
+        /**
+         * Determines whether two squares are the same position.
+         *
+         * @param square
+         *            The first square.
+         * @param other
+         *            The second square.
+         * @return <code>true</code> iff both are the same square, or squares
+         *         at the same position of the same board.
+         */
+        static boolean isSame(Square square, Square other) {
+            return square.equals(other)
+                || (square.getBoard() != null && square.getBoard() == other.getBoard()
+                && square.getIndex() == other.getIndex());
+        }
+
+        /**
+         * Marks a square as visited.
+         *
+         * @param square
+         *            The square to mark.
+         * @return <code>true</code> iff the square was not visited before.
+         */
+        boolean add(Square square) {
+            if (square.getBoard() == null) {
+                return squares.add(square);
+            }
+            if (indices.get(square.getIndex())) {
+                return false;
+            }
+            indices.set(square.getIndex());
+            return true;
+        }
+
+        /**
+         * @param square
+         *            The square to look up.
+         * @return <code>true</code> iff the square was visited.
+         */
+        boolean contains(Square square) {
+            if (square.getBoard() == null) {
+                return squares.contains(square);
+            }
+            return indices.get(square.getIndex());
+        }
+    }
+
     /**
      * Helper class to keep track of the path.
      *
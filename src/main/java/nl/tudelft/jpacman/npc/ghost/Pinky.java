@@ -3,7 +3,7 @@ package nl.tudelft.jpacman.npc.ghost;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
-import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.board.UnitKind;
 import nl.tudelft.jpacman.npc.Ghost;
 import nl.tudelft.jpacman.sprite.Sprite;
 
@@ -89,7 +89,7 @@ public class Pinky extends Ghost {
     public Optional<Direction> nextAiMove() {
         assert hasSquare();
 
-        Unit player = Navigation.findNearest(Player.class, getSquare());
+        Unit player = Navigation.findNearest(UnitKind.PLAYER, getSquare());
         if (player == null) {
             return Optional.empty();
         }
@@ -3,8 +3,10 @@ package nl.tudelft.jpacman.sprite;
 import java.awt.Graphics;
 
 /**
- * Animated sprite, renders the frame depending on the time of requesting the
- * draw.
+ * Animated sprite, renders the frame depending on the time of an
+ * {@link AnimationClock} when it is drawn. The frame is computed from the
+ * time directly, so drawing takes as long after a long pause as after a
+ * short one.
  *
  * @author Jeroen Roosen 
  */
@@ -16,22 +18,17 @@ public class AnimatedSprite implements Sprite {
     private static final Sprite END_OF_LOOP = new EmptySprite();
 
     /**
-     * The animation itself, in frames.
+     * The animation itself, possibly shared with other sprites.
      */
-    private final Sprite[] animationFrames;
+    private final Animation animation;
 
     /**
-     * The delay between frames.
+     * The clock the animation is shown at.
      */
-    private final int animationDelay;
+    private final AnimationClock clock;
 
     /**
-     * Whether is animation should be looping or not.
-     */
-    private final boolean looping;
-
-    /**
-     * The index of the current frame.
+     * The index of the frame shown while not animating.
      */
     private int current;
 
@@ -41,9 +38,11 @@ public class AnimatedSprite implements Sprite {
     private boolean animating;
 
     /**
-     * The {@link System#currentTimeMillis()} stamp of the last update.
+     * The time of the {@link #clock} at which a non-looping animation was
+     * (re)started. Looping animations all count from time 0, so they need
+     * no time of their own.
      */
-    private long lastUpdate;
+    private long startTime;
 
     /**
      * Creates a new animating sprite that will change frames every interval. By
@@ -73,15 +72,43 @@ public class AnimatedSprite implements Sprite {
      *            Whether or not this sprite is animating from the start.
      */
     public AnimatedSprite(Sprite[] frames, int delay, boolean loop, boolean isAnimating) {
-        assert frames.length > 0;
+        this(new Animation(frames, delay, loop), isAnimating);
+    }
+
+    /**
+     * Creates a new sprite playing an animation at a
+     * {@link AnimationClock#realTime() real time clock}, which is not ticked
+     * by renderers.
+     *
+     * @param animation
+     *            The animation to play.
+     * @param isAnimating
+     *            Whether or not this sprite is animating from the start.
+     */
+    public AnimatedSprite(Animation animation, boolean isAnimating) {
+        this(animation, isAnimating, AnimationClock.realTime());
+    }
 
-        this.animationFrames = frames.clone();
-        this.animationDelay = delay;
-        this.looping = loop;
+    /**
+     * Creates a new sprite playing an animation.
+     *
+     * @param animation
+     *            The animation to play.
+     * @param isAnimating
+     *            Whether or not this sprite is animating from the start.
+     * @param clock
+     *            The clock the animation is shown at.
+     */
+    public AnimatedSprite(Animation animation, boolean isAnimating, AnimationClock clock) {
+        assert animation != null;
+        assert clock != null;
+
+        this.animation = animation;
+        this.clock = clock;
         this.animating = isAnimating;
 
         this.current = 0;
-        this.lastUpdate = System.currentTimeMillis();
+        this.startTime = clock.millis();
     }
 
     /**
@@ -89,63 +116,99 @@ public class AnimatedSprite implements Sprite {
      */
     private Sprite currentSprite() {
         Sprite result = END_OF_LOOP;
-        if (current < animationFrames.length) {
-            result = animationFrames[current];
+        int index = frameIndex();
+        if (index < animation.getFrameCount()) {
+            result = animation.getFrame(index);
         }
         assert result != null;
         return result;
     }
 
     /**
-     * Starts or stops the animation of this sprite.
+     * Computes the frame to show at the current time of the clock. A
+     * non-looping animation that has shown all its frames stops animating.
+     *
+     * @return The index of the frame to show, which is the number of frames
+     *         once a non-looping animation ended.
+     */
+    private int frameIndex() {
+        if (!animating) {
+            return current;
+        }
+        long now = clock.millis();
+        int frames = animation.getFrameCount();
+        if (animation.isLooping()) {
+            return (int) (now / animation.getDelay() % frames);
+        }
+        long frame = (now - startTime) / animation.getDelay();
+        if (frame < frames) {
+            return (int) frame;
+        }
+        current = frames;
+        animating = false;
+        return current;
+    }
+
+    /**
+     * Starts or stops the animation of this sprite. A stopped sprite keeps
+     * showing the frame it showed when it was stopped.
      *
      * @param isAnimating
      *            <code>true</code> to animate this sprite or <code>false</code>
      *            to stop animating this sprite.
      */
     public void setAnimating(boolean isAnimating) {
+        if (isAnimating == animating) {
+            return;
+        }
+        if (isAnimating) {
+            startTime = clock.millis() - (long) current * animation.getDelay();
+        } else {
+            current = frameIndex();
+        }
         this.animating = isAnimating;
     }
 
+    /**
+     * @return The animation this sprite plays.
+     */
+    public Animation getAnimation() {
+        return animation;
+    }
+
     /**
      * (Re)starts the current animation.
      */
     public void restart() {
         this.current = 0;
-        this.lastUpdate = System.currentTimeMillis();
-        setAnimating(true);
+        this.startTime = clock.millis();
+        this.animating = true;
     }
 
     @Override
     public void draw(Graphics graphics, int x, int y, int width, int height) {
-        update();
         currentSprite().draw(graphics, x, y, width, height);
     }
 
+    @Override
+    public boolean drawPixels(int[] raster, int offset, int scanline, int width, int height) {
+        return currentSprite().drawPixels(raster, offset, scanline, width, height);
+    }
+
     @Override
     public Sprite split(int x, int y, int width, int height) {
-        update();
         return currentSprite().split(x, y, width, height);
     }
 
-    /**
-     * Updates the current frame index depending on the current system time.
-     */
-    private void update() {
-        long now = System.currentTimeMillis();
-        if (animating) {
-            while (lastUpdate < now) {
-                lastUpdate += animationDelay;
-                current++;
-                if (looping) {
-                    current %= animationFrames.length;
-                } else if (current == animationFrames.length) {
-                    animating = false;
-                }
-            }
-        } else {
-            lastUpdate = now;
-        }
+    @Override
+    public boolean isAnimating() {
+        frameIndex();
+        return animating;
+    }
+
+    @Override
+    public boolean isLooping() {
+        return animation.isLooping();
     }
 
     @Override
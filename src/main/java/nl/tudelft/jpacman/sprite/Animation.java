@@ -0,0 +1,75 @@
+package nl.tudelft.jpacman.sprite;
+
+/**
+ * The frames and timing of an animation. Animations are immutable, so many
+ * {@link AnimatedSprite}s can play the same animation, each keeping only
+ * where it is in the animation.
+ */
+public final class Animation {
+
+    /**
+     * The frames of the animation.
+     */
+    private final Sprite[] frames;
+
+    /**
+     * The delay between frames, in milliseconds.
+     */
+    private final int delay;
+
+    /**
+     * Whether the animation starts over after its last frame.
+     */
+    private final boolean looping;
+
+    /**
+     * Creates a new animation.
+     *
+     * @param frames
+     *            The frames of the animation.
+     * @param delay
+     *            The delay between frames, in milliseconds.
+     * @param loop
+     *            Whether the animation starts over after its last frame.
+     */
+    public Animation(Sprite[] frames, int delay, boolean loop) {
+        assert frames.length > 0;
+
+        this.frames = frames.clone();
+        this.delay = Math.max(delay, 1);
+        this.looping = loop;
+    }
+
+    /**
+     * @return The number of frames of the animation.
+     */
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    /**
+     * Returns a frame of the animation.
+     *
+     * @param index
+     *            The index of the frame, from 0.
+     * @return The frame.
+     */
+    public Sprite getFrame(int index) {
+        return frames[index];
+    }
+
+    /**
+     * @return The delay between frames, in milliseconds.
+     */
+    public int getDelay() {
+        return delay;
+    }
+
+    /**
+     * @return <code>true</code> iff the animation starts over after its last
+     *         frame.
+     */
+    public boolean isLooping() {
+        return looping;
+    }
+}
@@ -0,0 +1,82 @@
+package nl.tudelft.jpacman.sprite;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The time animations are shown at. The clock only moves when it is ticked,
+ * which renderers do once per frame they render, so all sprites drawn in one
+ * frame show the same moment and reading the time costs nothing.
+ *
+ * <p>Each {@link SpriteStore} has a clock of its own for the sprites it
+ * creates, which the renderers find through the level they render. Sprites
+ * created without a store follow a {@link #realTime() real time clock}
+ * instead, which needs no ticking.</p>
+ */
+public final class AnimationClock {
+
+    /**
+     * The {@link System#nanoTime()} at which this clock was created.
+     */
+    private final long origin = System.nanoTime();
+
+    /**
+     * Whether this clock moves by itself, every time it is read.
+     */
+    private final boolean running;
+
+    /**
+     * The time of the last tick, in milliseconds since this clock was
+     * created.
+     */
+    private final AtomicLong time = new AtomicLong();
+
+    /**
+     * Creates a new clock at time 0, which only moves when it is ticked.
+     */
+    public AnimationClock() {
+        this(false);
+    }
+
+    private AnimationClock(boolean running) {
+        this.running = running;
+    }
+
+    /**
+     * @return A new clock that moves to the current time every time it is
+     *         read, for sprites that no renderer ticks the clock of.
+     */
+    public static AnimationClock realTime() {
+        return new AnimationClock(true);
+    }
+
+    /**
+     * Moves the clock to the current time, to start a new frame.
+     */
+    public void tick() {
+        set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin));
+    }
+
+    /**
+     * Moves the clock to the given time, for instance to render frames that
+     * are not shown right away. The clock never goes back, so setting an
+     * earlier time than the current one has no effect.
+     *
+     * @param millis
+     *            The new time, in milliseconds since this clock was created.
+     */
+    public void set(long millis) {
+        time.accumulateAndGet(millis, Math::max);
+    }
+
+    /**
+     * @return The time of the last tick, in milliseconds since this clock
+     *         was created.
+     */
+    public long millis() {
+        if (running) {
+            tick();
+        }
+        return time.get();
+    }
+}
@@ -15,6 +15,11 @@ public class EmptySprite implements Sprite {
         // nothing to draw.
     }
 
+    @Override
+    public boolean drawPixels(int[] raster, int offset, int scanline, int width, int height) {
+        return true;
+    }
+
     @Override
     public Sprite split(int x, int y, int width, int height) {
         return new EmptySprite();
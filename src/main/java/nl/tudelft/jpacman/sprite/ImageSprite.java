@@ -1,81 +1,112 @@
 package nl.tudelft.jpacman.sprite;
 
 import java.awt.Graphics;
-import java.awt.GraphicsConfiguration;
-import java.awt.GraphicsEnvironment;
 import java.awt.Image;
-import java.awt.Transparency;
-import java.awt.image.BufferedImage;
+import java.awt.Rectangle;
 
 /**
  * Basic implementation of a Sprite, it merely consists of a static image.
+ * The image is a region of a {@link SpriteAtlas}, shared with the sprites
+ * split from it.
  *
  * @author Jeroen Roosen 
  */
 public class ImageSprite implements Sprite {
 
     /**
-     * Internal image.
+     * The atlas holding the image.
      */
-    private final Image image;
+    private final SpriteAtlas atlas;
 
     /**
-     * Creates a new sprite from an image.
+     * The region of the atlas holding the image.
+     */
+    private final int region;
+
+    /**
+     * The x coordinate of the image in the atlas.
+     */
+    private final int atlasX;
+
+    /**
+     * The y coordinate of the image in the atlas.
+     */
+    private final int atlasY;
+
+    /**
+     * The width of the image.
+     */
+    private final int width;
+
+    /**
+     * The height of the image.
+     */
+    private final int height;
+
+    /**
+     * Creates a new sprite from an image, copying it into an atlas of its
+     * own the size of the image, which sprites split from it share.
      *
      * @param img
      *            The image to create a sprite from.
      */
     public ImageSprite(Image img) {
-        this.image = img;
+        this(new SpriteAtlas(img.getWidth(null)), img);
+    }
+
+    /**
+     * Creates a new sprite from an image, copying it into an atlas.
+     *
+     * @param atlas
+     *            The atlas to copy the image into.
+     * @param img
+     *            The image to create a sprite from.
+     */
+    ImageSprite(SpriteAtlas atlas, Image img) {
+        this(atlas, atlas.add(img));
+    }
+
+    private ImageSprite(SpriteAtlas atlas, int region) {
+        Rectangle bounds = atlas.bounds(region);
+        this.atlas = atlas;
+        this.region = region;
+        this.atlasX = bounds.x;
+        this.atlasY = bounds.y;
+        this.width = bounds.width;
+        this.height = bounds.height;
     }
 
     @Override
     public void draw(Graphics graphics, int x, int y, int width, int height) {
-        graphics.drawImage(image, x, y, x + width, y + height, 0, 0,
-            image.getWidth(null), image.getHeight(null), null);
+        atlas.draw(graphics, region, x, y, width, height);
+    }
+
+    @Override
+    public boolean drawPixels(int[] raster, int offset, int scanline, int width, int height) {
+        atlas.drawPixels(region, raster, offset, scanline, width, height);
+        return true;
     }
 
     @Override
     public Sprite split(int x, int y, int width, int height) {
         if (withinImage(x, y) && withinImage(x + width - 1, y + height - 1)) {
-            BufferedImage newImage = newImage(width, height);
-            newImage.createGraphics().drawImage(image, 0, 0, width, height, x,
-                y, x + width, y + height, null);
-            return new ImageSprite(newImage);
+            return new ImageSprite(atlas, atlas.region(atlasX + x, atlasY + y, width, height));
         }
         return new EmptySprite();
     }
 
     private boolean withinImage(int x, int y) {
-        return x < image.getWidth(null) && x >= 0 && y < image.getHeight(null)
-            && y >= 0;
-    }
-
-    /**
-     * Creates a new, empty image of the given width and height. Its
-     * transparency will be a bitmask, so no try ARGB image.
-     *
-     * @param width
-     *            The width of the new image.
-     * @param height
-     *            The height of the new image.
-     * @return The new, empty image.
-     */
-    private BufferedImage newImage(int width, int height) {
-        GraphicsConfiguration gc = GraphicsEnvironment
-            .getLocalGraphicsEnvironment().getDefaultScreenDevice()
-            .getDefaultConfiguration();
-        return gc.createCompatibleImage(width, height, Transparency.BITMASK);
+        return x < width && x >= 0 && y < height && y >= 0;
     }
 
     @Override
     public int getWidth() {
-        return image.getWidth(null);
+        return width;
     }
 
     @Override
     public int getHeight() {
-        return image.getHeight(null);
+        return height;
     }
 
 }
@@ -1,7 +1,7 @@
 package nl.tudelft.jpacman.sprite;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 
 import nl.tudelft.jpacman.PacmanConfigurationException;
@@ -62,18 +62,15 @@ public class PacManSprites extends SpriteStore {
      * @return The animation of a dying Pac-Man.
      */
     public AnimatedSprite getPacManDeathAnimation() {
-        String resource = "/sprite/dead.png";
-
-        Sprite baseImage = loadSprite(resource);
-        AnimatedSprite animation = createAnimatedSprite(baseImage, PACMAN_DEATH_FRAMES,
-            ANIMATION_DELAY, false);
-        animation.setAnimating(false);
-
-        return animation;
+        Animation animation = loadAnimation("/sprite/dead.png", 0, SPRITE_SIZE,
+            PACMAN_DEATH_FRAMES, ANIMATION_DELAY, false);
+        return new AnimatedSprite(animation, false, getClock());
     }
 
     /**
-     * Returns a new map with animations for all directions.
+     * Returns a new map with animations for all directions. The animations
+     * are shared with the maps returned before, only the sprites playing them
+     * are new.
      *
      * @param resource
      *            The resource name of the sprite.
@@ -82,16 +79,12 @@ public class PacManSprites extends SpriteStore {
      * @return The animated sprite facing the given direction.
      */
     private Map<Direction, Sprite> directionSprite(String resource, int frames) {
-        Map<Direction, Sprite> sprite = new HashMap<>();
+        Map<Direction, Sprite> sprite = new EnumMap<>(Direction.class);
 
-        Sprite baseImage = loadSprite(resource);
         for (int i = 0; i < DIRECTIONS.length; i++) {
-            Sprite directionSprite = baseImage.split(0, i * SPRITE_SIZE, frames
-                * SPRITE_SIZE, SPRITE_SIZE);
-            AnimatedSprite animation = createAnimatedSprite(directionSprite,
+            Animation animation = loadAnimation(resource, i * SPRITE_SIZE, SPRITE_SIZE,
                 frames, ANIMATION_DELAY, true);
-            animation.setAnimating(true);
-            sprite.put(DIRECTIONS[i], animation);
+            sprite.put(DIRECTIONS[i], new AnimatedSprite(animation, true, getClock()));
         }
 
         return sprite;
@@ -148,4 +141,21 @@ public class PacManSprites extends SpriteStore {
             throw new PacmanConfigurationException("Unable to load sprite: " + resource, e);
         }
     }
+
+    /**
+     * Overloads the default animation loading, ignoring the exception. This
+     * class assumes all sprites are provided, hence the exception will be
+     * thrown as a {@link RuntimeException}.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public Animation loadAnimation(String resource, int y, int height, int frames,
+                                   int delay, boolean loop) {
+        try {
+            return super.loadAnimation(resource, y, height, frames, delay, loop);
+        } catch (IOException e) {
+            throw new PacmanConfigurationException("Unable to load sprite: " + resource, e);
+        }
+    }
 }
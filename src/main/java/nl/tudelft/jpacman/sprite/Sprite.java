@@ -25,6 +25,31 @@ public interface Sprite {
      */
     void draw(Graphics graphics, int x, int y, int width, int height);
 
+    /**
+     * Draws the sprite straight into the pixels of a raster, if the sprite
+     * can provide its pixels. Transparent pixels are skipped, and opaque
+     * pixels replace the pixels of the raster.
+     *
+     * @param raster
+     *            The RGB pixels of the raster, row by row.
+     * @param offset
+     *            The index in the raster of the top left pixel to draw at.
+     * @param scanline
+     *            The number of pixels in a row of the raster.
+     * @param width
+     *            The width of the destination draw area, which must lie
+     *            within the raster.
+     * @param height
+     *            The height of the destination draw area, which must lie
+     *            within the raster.
+     * @return <code>true</code> iff the sprite was drawn, <code>false</code>
+     *         if it has to be drawn with
+     *         {@link #draw(Graphics, int, int, int, int)} instead.
+     */
+    default boolean drawPixels(int[] raster, int offset, int scanline, int width, int height) {
+        return false;
+    }
+
     /**
      * Returns a portion of this sprite as a new Sprite.
      *
@@ -54,4 +79,25 @@ public interface Sprite {
      * @return The height of this sprite in pixels.
      */
     int getHeight();
+
+    /**
+     * Determines whether this sprite may look different when it is drawn
+     * again later, so views showing it have to be redrawn even if nothing on
+     * the board changed.
+     *
+     * @return <code>true</code> iff this sprite is animating.
+     */
+    default boolean isAnimating() {
+        return false;
+    }
+
+    /**
+     * Determines whether the animation of this sprite goes on for ever, as
+     * opposed to an animation that ends by itself.
+     *
+     * @return <code>true</code> iff this sprite repeats its animation.
+     */
+    default boolean isLooping() {
+        return false;
+    }
 }
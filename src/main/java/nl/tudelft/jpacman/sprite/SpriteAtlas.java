@@ -0,0 +1,425 @@
+package nl.tudelft.jpacman.sprite;
+
+import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single image holding the pixels of many sprites, each in its own region.
+ * Sprites split from a sprite in the atlas share its pixels, so splitting
+ * only adds a region.
+ *
+ * <p>Drawing a region at another size than its own would scale it on every
+ * draw. Instead, each region keeps copies of itself pre-scaled to the sizes
+ * it was most recently drawn at, made the first time it is drawn at a size.
+ * A board draws all its sprites at the same cell size, so each sprite is
+ * scaled once per cell size. Renderers drawing at other sizes, such as a
+ * recorder or a camera, only scale the regions they draw, and do not push
+ * the copies of other renderers out. Drawing copies pixels from the copy
+ * without scaling.</p>
+ *
+ * <p>Images that are not loaded by a {@link SpriteStore} get an atlas of
+ * their own, sized to the image.</p>
+ */
+final class SpriteAtlas {
+
+    /**
+     * The width of the atlases of sprite stores, unless a region is wider.
+     */
+    private static final int WIDTH = 512;
+
+    /**
+     * The number of scaled copies kept per region, for the most recent sizes
+     * it was drawn at, which allows as many renderers drawing at different
+     * sizes at the same time.
+     */
+    private static final int COPIES = 8;
+
+    /**
+     * The position of the alpha component in an ARGB pixel.
+     */
+    private static final int ALPHA_SHIFT = 24;
+
+    /**
+     * The alpha of an opaque pixel, and the largest value of a component.
+     */
+    private static final int OPAQUE = 0xFF;
+
+    /**
+     * The width of the atlas, unless a region is wider.
+     */
+    private final int rowWidth;
+
+    /**
+     * The pixels of all regions, or <code>null</code> if no image was added.
+     */
+    private BufferedImage image;
+
+    /**
+     * The regions of the atlas, by index.
+     */
+    private final List<Rectangle> regions = new ArrayList<>();
+
+    /**
+     * The index of each region, to return the same index when a sprite is
+     * split the same way twice.
+     */
+    private final Map<Rectangle, Integer> regionIndex = new HashMap<>();
+
+    /**
+     * The x coordinate at which the next image is added to the current row.
+     */
+    private int rowX;
+
+    /**
+     * The y coordinate of the current row of images.
+     */
+    private int rowY;
+
+    /**
+     * The height of the tallest image on the current row.
+     */
+    private int rowHeight;
+
+    /**
+     * The scaled copies of each region by index, the most recently made
+     * first. Replaced rather than modified, so drawing needs no lock.
+     */
+    private volatile ScaledCopy[][] copies = new ScaledCopy[0][];
+
+    /**
+     * Creates a new, empty atlas for the sprites of a sprite store.
+     */
+    SpriteAtlas() {
+        this(WIDTH);
+    }
+
+    /**
+     * Creates a new, empty atlas.
+     *
+     * @param width
+     *            The width of the atlas, unless a region is wider.
+     */
+    SpriteAtlas(int width) {
+        assert width > 0;
+        this.rowWidth = width;
+    }
+
+    /**
+     * Copies an image into the atlas.
+     *
+     * @param source
+     *            The image to copy, which must be fully loaded.
+     * @return The region of the atlas holding the image.
+     */
+    synchronized int add(Image source) {
+        int width = source.getWidth(null);
+        int height = source.getHeight(null);
+        assert width > 0 && height > 0;
+        if (rowX + width > Math.max(rowWidth, atlasWidth())) {
+            rowX = 0;
+            rowY += rowHeight;
+            rowHeight = 0;
+        }
+        ensureSize(rowX + width, rowY + height);
+        Graphics graphics = image.getGraphics();
+        try {
+            graphics.drawImage(source, rowX, rowY, null);
+        } finally {
+            graphics.dispose();
+        }
+        int result = region(rowX, rowY, width, height);
+        rowX += width;
+        rowHeight = Math.max(rowHeight, height);
+        return result;
+    }
+
+    private int atlasWidth() {
+        if (image == null) {
+            return 0;
+        }
+        return image.getWidth();
+    }
+
+    private void ensureSize(int width, int height) {
+        if (image != null && image.getWidth() >= width && image.getHeight() >= height) {
+            return;
+        }
+        int newWidth = Math.max(Math.max(rowWidth, atlasWidth()), width);
+        int newHeight = height;
+        if (image != null) {
+            newHeight = Math.max(height, image.getHeight() * 2);
+        }
+        BufferedImage grown = newImage(newWidth, newHeight);
+        if (image != null) {
+            Graphics graphics = grown.getGraphics();
+            try {
+                graphics.drawImage(image, 0, 0, null);
+            } finally {
+                graphics.dispose();
+            }
+        }
+        image = grown;
+    }
+
+    /**
+     * Returns the region of the atlas at the given coordinates, adding it if
+     * there is no such region yet.
+     *
+     * @param x
+     *            The x coordinate of the region in the atlas.
+     * @param y
+     *            The y coordinate of the region in the atlas.
+     * @param width
+     *            The width of the region.
+     * @param height
+     *            The height of the region.
+     * @return The index of the region.
+     */
+    synchronized int region(int x, int y, int width, int height) {
+        Rectangle bounds = new Rectangle(x, y, width, height);
+        assert image != null && new Rectangle(image.getWidth(), image.getHeight())
+            .contains(bounds);
+        Integer index = regionIndex.get(bounds);
+        if (index == null) {
+            index = regions.size();
+            regions.add(bounds);
+            regionIndex.put(bounds, index);
+            ScaledCopy[][] grown = Arrays.copyOf(copies, regions.size());
+            grown[index] = new ScaledCopy[0];
+            copies = grown;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the bounds of a region.
+     *
+     * @param region
+     *            The index of the region.
+     * @return The coordinates and size of the region in the atlas.
+     */
+    synchronized Rectangle bounds(int region) {
+        return new Rectangle(regions.get(region));
+    }
+
+    /**
+     * Draws a region scaled to the given size, from the copy of the region
+     * scaled to that size. The copy is made first if it was not made yet.
+     *
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param region
+     *            The index of the region to draw.
+     * @param x
+     *            The destination x coordinate.
+     * @param y
+     *            The destination y coordinate.
+     * @param width
+     *            The width to scale the region to.
+     * @param height
+     *            The height to scale the region to.
+     */
+    void draw(Graphics graphics, int region, int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        graphics.drawImage(scaledCopy(region, width, height).pixels, x, y, null);
+    }
+
+    /**
+     * Draws a region scaled to the given size straight into the pixels of a
+     * raster, from the copy of the region scaled to that size. Rows of opaque
+     * regions are copied as a whole; for other regions, transparent pixels
+     * are skipped and translucent pixels are blended.
+     *
+     * @param region
+     *            The index of the region to draw.
+     * @param raster
+     *            The RGB pixels of the raster, row by row.
+     * @param offset
+     *            The index in the raster of the top left pixel to draw at.
+     * @param scanline
+     *            The number of pixels in a row of the raster.
+     * @param width
+     *            The width to scale the region to.
+     * @param height
+     *            The height to scale the region to.
+     */
+    void drawPixels(int region, int[] raster, int offset, int scanline,
+                    int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        ScaledCopy copy = scaledCopy(region, width, height);
+        int[] source = copy.argb;
+        if (copy.opaque) {
+            for (int row = 0; row < height; row++) {
+                System.arraycopy(source, row * width, raster, offset + row * scanline, width);
+            }
+            return;
+        }
+        for (int row = 0; row < height; row++) {
+            int src = row * width;
+            int dst = offset + row * scanline;
+            for (int column = 0; column < width; column++) {
+                int pixel = source[src + column];
+                int alpha = pixel >>> ALPHA_SHIFT;
+                if (alpha == OPAQUE) {
+                    raster[dst + column] = pixel;
+                } else if (alpha != 0) {
+                    raster[dst + column] = blend(pixel, raster[dst + column], alpha);
+                }
+            }
+        }
+    }
+
+    private static int blend(int pixel, int background, int alpha) {
+        int result = 0;
+        for (int shift = 0; shift < ALPHA_SHIFT; shift += Byte.SIZE) {
+            int over = pixel >> shift & OPAQUE;
+            int under = background >> shift & OPAQUE;
+            result |= (over * alpha + under * (OPAQUE - alpha)) / OPAQUE << shift;
+        }
+        return result;
+    }
+
+    private ScaledCopy scaledCopy(int region, int width, int height) {
+        ScaledCopy copy = findCopy(region, width, height);
+        if (copy == null) {
+            copy = makeCopy(region, width, height);
+        }
+        return copy;
+    }
+
+    private ScaledCopy findCopy(int region, int width, int height) {
+        for (ScaledCopy copy : copies[region]) {
+            if (copy.width == width && copy.height == height) {
+                return copy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Scales a region to a size, and keeps the copy in front of the copies
+     * of the region, dropping the least recently made copy if the region
+     * has too many.
+     *
+     * @param region
+     *            The index of the region.
+     * @param width
+     *            The width to scale to.
+     * @param height
+     *            The height to scale to.
+     * @return The scaled copy.
+     */
+    private synchronized ScaledCopy makeCopy(int region, int width, int height) {
+        ScaledCopy copy = findCopy(region, width, height);
+        if (copy != null) {
+            return copy;
+        }
+        copy = new ScaledCopy(regions.get(region), width, height);
+        ScaledCopy[] current = copies[region];
+        ScaledCopy[] kept = new ScaledCopy[Math.min(current.length + 1, COPIES)];
+        kept[0] = copy;
+        System.arraycopy(current, 0, kept, 1, kept.length - 1);
+        ScaledCopy[][] all = copies.clone();
+        all[region] = kept;
+        copies = all;
+        return copy;
+    }
+
+    /**
+     * Creates a new, empty image. Its transparency will be a bitmask, so the
+     * screen can draw it without blending, unless there is no screen.
+     *
+     * @param width
+     *            The width of the new image.
+     * @param height
+     *            The height of the new image.
+     * @return The new, empty image.
+     */
+    private static BufferedImage newImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+            .getDefaultConfiguration().createCompatibleImage(width, height,
+                Transparency.BITMASK);
+    }
+
+    /**
+     * A region of the atlas scaled to a size.
+     */
+    private final class ScaledCopy {
+
+        /**
+         * The width scaled to.
+         */
+        private final int width;
+
+        /**
+         * The height scaled to.
+         */
+        private final int height;
+
+        /**
+         * The scaled region.
+         */
+        private final BufferedImage pixels;
+
+        /**
+         * The ARGB values of {@link #pixels}, row by row.
+         */
+        private final int[] argb;
+
+        /**
+         * Whether the region is opaque when scaled.
+         */
+        private final boolean opaque;
+
+        /**
+         * Scales a region of the atlas. Must be called holding the lock of
+         * the atlas.
+         *
+         * @param source
+         *            The bounds of the region in the atlas.
+         * @param width
+         *            The width to scale to.
+         * @param height
+         *            The height to scale to.
+         */
+        ScaledCopy(Rectangle source, int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.pixels = newImage(width, height);
+            Graphics graphics = pixels.getGraphics();
+            try {
+                graphics.drawImage(image, 0, 0, width, height, source.x, source.y,
+                    source.x + source.width, source.y + source.height, null);
+            } finally {
+                graphics.dispose();
+            }
+            this.argb = pixels.getRGB(0, 0, width, height, null, 0, width);
+            this.opaque = isOpaque();
+        }
+
+        private boolean isOpaque() {
+            for (int pixel : argb) {
+                if (pixel >>> ALPHA_SHIFT != OPAQUE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -23,6 +23,23 @@ public class SpriteStore {
      */
     private final Map<String, Sprite> spriteMap;
 
+    /**
+     * Animations are only cut from their images once, and shared by all
+     * sprites playing them, so we keep track of them in a hash map.
+     */
+    private final Map<String, Animation> animationMap = new HashMap<>();
+
+    /**
+     * The atlas the images of all sprites loaded by this store are copied
+     * into.
+     */
+    private final SpriteAtlas atlas = new SpriteAtlas();
+
+    /**
+     * The clock the animated sprites created by this store are shown at.
+     */
+    private final AnimationClock clock = new AnimationClock();
+
     /**
      * Create a new sprite store.
      */
@@ -69,8 +86,43 @@ public class SpriteStore {
                 throw new IOException("Unable to load " + resource + ", resource does not exist.");
             }
             BufferedImage image = ImageIO.read(input);
-            return new ImageSprite(image);
+            return new ImageSprite(atlas, image);
+        }
+    }
+
+    /**
+     * Loads an animation from a row of frames in a resource on the class
+     * path. Animations are cut from the resource once, and then stored in the
+     * store so that all sprites playing them share their frames.
+     *
+     * @param resource
+     *            The resource path.
+     * @param y
+     *            The y coordinate of the row of frames in the resource.
+     * @param height
+     *            The height of the row of frames.
+     * @param frames
+     *            The number of frames, side by side across the width of the
+     *            resource.
+     * @param delay
+     *            The delay between frames.
+     * @param loop
+     *            Whether the animation starts over after its last frame.
+     * @return The animation.
+     * @throws IOException
+     *             When the resource could not be loaded.
+     */
+    public Animation loadAnimation(String resource, int y, int height, int frames,
+                                   int delay, boolean loop) throws IOException {
+        String key = resource + '@' + y + '+' + height + '/' + frames + ':' + delay + ':' + loop;
+        Animation result = animationMap.get(key);
+        if (result == null) {
+            Sprite baseImage = loadSprite(resource);
+            result = createAnimation(baseImage.split(0, y, baseImage.getWidth(), height),
+                frames, delay, loop);
+            animationMap.put(key, result);
         }
+        return result;
     }
 
     /**
@@ -88,6 +140,33 @@ public class SpriteStore {
      */
     public AnimatedSprite createAnimatedSprite(Sprite baseImage, int frames,
                                                int delay, boolean loop) {
+        return new AnimatedSprite(createAnimation(baseImage, frames, delay, loop), false,
+            clock);
+    }
+
+    /**
+     * @return The clock the animated sprites created by this store are
+     *         shown at, to be ticked by the renderers showing them.
+     */
+    public AnimationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Creates a new {@link Animation} from a base image.
+     *
+     * @param baseImage
+     *            The base image to convert into an animation.
+     * @param frames
+     *            The amount of frames of the animation, side by side across
+     *            the width of the base image.
+     * @param delay
+     *            The delay between frames.
+     * @param loop
+     *            Whether the animation starts over after its last frame.
+     * @return The animation.
+     */
+    public Animation createAnimation(Sprite baseImage, int frames, int delay, boolean loop) {
         assert baseImage != null;
         assert frames > 0;
 
@@ -99,7 +178,7 @@ public class SpriteStore {
                 baseImage.getHeight());
         }
 
-        return new AnimatedSprite(animation, delay, loop);
+        return new Animation(animation, delay, loop);
     }
 
 }
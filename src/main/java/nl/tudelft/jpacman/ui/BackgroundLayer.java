@@ -0,0 +1,163 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardTopology;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+/**
+ * The walls and floors of a board, rendered once into an image at a given
+ * cell size. Squares never change their sprite, so the image stays valid
+ * until the board or the cell size changes, and every frame only has to
+ * copy it before drawing pellets and units on top. Boards with a topology
+ * are rendered from it, so boards that create their squares on demand do
+ * not create them all to be rendered.
+ */
+final class BackgroundLayer {
+
+    /**
+     * The colour behind squares with transparent sprites.
+     */
+    private final Color backgroundColor;
+
+    /**
+     * The rendered squares, or <code>null</code> if nothing was rendered yet.
+     */
+    private BufferedImage image;
+
+    /**
+     * The board that was rendered into {@link #image}.
+     */
+    private Board board;
+
+    /**
+     * The width of a cell in {@link #image}, in pixels.
+     */
+    private int cellWidth;
+
+    /**
+     * The height of a cell in {@link #image}, in pixels.
+     */
+    private int cellHeight;
+
+    /**
+     * Creates a new, empty background layer.
+     *
+     * @param backgroundColor
+     *            The colour behind squares with transparent sprites.
+     */
+    BackgroundLayer(Color backgroundColor) {
+        this.backgroundColor = backgroundColor;
+    }
+
+    /**
+     * Returns the rendered squares of a board, rendering them first if the
+     * board or cell size differs from the last call. May be called from
+     * several threads, that all get the same image.
+     *
+     * @param onBoard
+     *            The board to render.
+     * @param width
+     *            The width of a cell, in pixels. Must be positive.
+     * @param height
+     *            The height of a cell, in pixels. Must be positive.
+     * @param configuration
+     *            The configuration of the screen the image will be drawn on,
+     *            or <code>null</code> if it is not known.
+     * @return An image of the squares of the board, with the square at
+     *         <code>(x, y)</code> at pixel <code>(x * width, y * height)</code>.
+     */
+    synchronized BufferedImage get(Board onBoard, int width, int height,
+                                   GraphicsConfiguration configuration) {
+        assert width > 0 && height > 0;
+        if (image == null || onBoard != board || width != cellWidth || height != cellHeight) {
+            image = render(onBoard, width, height, configuration);
+            board = onBoard;
+            cellWidth = width;
+            cellHeight = height;
+        }
+        return image;
+    }
+
+    /**
+     * Drops the rendered squares, so they are rendered again on the next
+     * call to {@link #get(Board, int, int, GraphicsConfiguration)}.
+     */
+    synchronized void invalidate() {
+        image = null;
+        board = null;
+    }
+
+    private BufferedImage render(Board onBoard, int width, int height,
+                                 GraphicsConfiguration configuration) {
+        int imageWidth = onBoard.getWidth() * width;
+        int imageHeight = onBoard.getHeight() * height;
+        BufferedImage result;
+        if (configuration == null) {
+            result = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+        } else {
+            result = configuration.createCompatibleImage(imageWidth, imageHeight);
+        }
+        Graphics graphics = result.getGraphics();
+        try {
+            graphics.setColor(backgroundColor);
+            graphics.fillRect(0, 0, imageWidth, imageHeight);
+            BoardTopology topology = onBoard.getTopology();
+            if (topology == null) {
+                drawSquares(graphics, onBoard, width, height);
+            } else {
+                drawTopology(graphics, onBoard, topology, width, height);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    /**
+     * Draws every square of a board with its own sprite.
+     */
+    private static void drawSquares(Graphics graphics, Board onBoard, int width, int height) {
+        for (int y = 0; y < onBoard.getHeight(); y++) {
+            for (int x = 0; x < onBoard.getWidth(); x++) {
+                onBoard.squareAt(x, y).getSprite()
+                    .draw(graphics, x * width, y * height, width, height);
+            }
+        }
+    }
+
+    /**
+     * Draws the walls and floors of a board from its topology. Squares that
+     * are equally walkable look alike, as the board factory creates them, so
+     * only the first walkable and the first other square are asked for their
+     * sprites.
+     */
+    private static void drawTopology(Graphics graphics, Board onBoard, BoardTopology topology,
+                                     int width, int height) {
+        int boardWidth = onBoard.getWidth();
+        int cells = boardWidth * onBoard.getHeight();
+        Sprite ground = null;
+        Sprite wall = null;
+        for (int index = 0; index < cells; index++) {
+            int x = index % boardWidth;
+            int y = index / boardWidth;
+            Sprite sprite;
+            if (topology.isWalkable(index)) {
+                if (ground == null) {
+                    ground = onBoard.squareAt(x, y).getSprite();
+                }
+                sprite = ground;
+            } else {
+                if (wall == null) {
+                    wall = onBoard.squareAt(x, y).getSprite();
+                }
+                sprite = wall;
+            }
+            sprite.draw(graphics, x * width, y * height, width, height);
+        }
+    }
+}
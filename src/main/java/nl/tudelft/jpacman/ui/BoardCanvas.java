@@ -0,0 +1,171 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.game.InputLatency;
+import nl.tudelft.jpacman.level.Level;
+
+/**
+ * Canvas displaying a game, rendered actively by a {@link RenderLoop}
+ * instead of painted by Swing. Frames are drawn into a back buffer and shown
+ * by flipping pages where the screen supports it, or by copying the back
+ * buffer otherwise.
+ */
+class BoardCanvas extends Canvas {
+
+    /**
+     * Default serialisation ID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The background colour of the board.
+     */
+    private static final Color BACKGROUND_COLOR = Color.BLACK;
+
+    /**
+     * The size (in pixels) of a square on the board. The initial size of this
+     * canvas will scale to fit a board with square of this size.
+     */
+    private static final int SQUARE_SIZE = 16;
+
+    /**
+     * The number of buffers to render with: one shown and one drawn on.
+     */
+    private static final int BUFFERS = 2;
+
+    /**
+     * The game to display.
+     */
+    private final transient Game game;
+
+    /**
+     * Renders the board.
+     */
+    private final transient BoardRenderer renderer = new BoardRenderer(BACKGROUND_COLOR);
+
+    /**
+     * Renders the recorded frames. Keeps a background of its own at the size
+     * of the recorder, so recording does not make the canvas render its
+     * background again on every frame.
+     */
+    private final transient BoardRenderer recordingRenderer =
+        new BoardRenderer(BACKGROUND_COLOR);
+
+    /**
+     * The camera choosing the part of the board to show, or <code>null</code>
+     * to scale the whole board to the canvas.
+     */
+    private volatile Camera camera;
+
+    /**
+     * Records every frame shown, or <code>null</code> if frames are not
+     * recorded.
+     */
+    private volatile FrameRecorder recorder;
+
+    /**
+     * Creates a new board canvas that will display the provided game.
+     *
+     * @param game
+     *            The game to display.
+     */
+    BoardCanvas(Game game) {
+        super();
+        assert game != null;
+        this.game = game;
+
+        Board board = game.getLevel().getBoard();
+        Dimension size = new Dimension(board.getWidth() * SQUARE_SIZE,
+            board.getHeight() * SQUARE_SIZE);
+        setMinimumSize(size);
+        setPreferredSize(size);
+        setBackground(BACKGROUND_COLOR);
+        setIgnoreRepaint(true);
+    }
+
+    /**
+     * Shows the part of the board a camera sees, with squares of a fixed
+     * size, instead of scaling the whole board to the canvas.
+     *
+     * @param view
+     *            The camera choosing the part of the board to show.
+     */
+    void setCamera(Camera view) {
+        assert view != null;
+        this.camera = view;
+        Dimension size = view.preferredSize(game.getLevel().getBoard());
+        setMinimumSize(size);
+        setPreferredSize(size);
+    }
+
+    /**
+     * Records every frame shown, rendered again at the size of the recorder.
+     *
+     * @param frames
+     *            The recorder to capture frames with.
+     */
+    void setRecorder(FrameRecorder frames) {
+        assert frames != null;
+        this.recorder = frames;
+    }
+
+    /**
+     * Ticks the {@link Level#getClock() animation clock} of the level, then
+     * renders the game into the back buffer and shows it. Does nothing while
+     * the canvas is not displayed. Must only be called from one thread at a
+     * time.
+     *
+     * @return <code>true</code> iff a frame was shown.
+     */
+    boolean renderFrame() {
+        if (!isDisplayable() || getWidth() <= 0 || getHeight() <= 0) {
+            return false;
+        }
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null) {
+            createBufferStrategy(BUFFERS);
+            strategy = getBufferStrategy();
+        }
+        long shown = InputLatency.shared().frameStarted();
+        Level level = game.getLevel();
+        level.getClock().tick();
+        Dimension size = getSize();
+        do {
+            do {
+                Graphics graphics = strategy.getDrawGraphics();
+                try {
+                    render(renderer, level, graphics, size);
+                } finally {
+                    graphics.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+        InputLatency.shared().framePainted(shown);
+        FrameRecorder frames = recorder;
+        if (frames != null) {
+            Dimension frameSize = frames.getSize();
+            frames.capture(graphics -> render(recordingRenderer, level, graphics, frameSize));
+        }
+        return true;
+    }
+
+    private void render(BoardRenderer with, Level level, Graphics graphics, Dimension size) {
+        Camera view = camera;
+        if (view == null) {
+            with.render(level.getBoard(), level.getPellets(), graphics, size,
+                getGraphicsConfiguration());
+        } else {
+            with.renderView(level.getBoard(), level.getPellets(), graphics, size, view);
+        }
+    }
+}
@@ -3,17 +3,36 @@ package nl.tudelft.jpacman.ui;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.game.InputLatency;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.Level.LevelObserver;
+import nl.tudelft.jpacman.sprite.Sprite;
 
 /**
  * Panel displaying a game.
  *
+ * <p>Between full repaints, which Swing asks for when the panel is shown or
+ * resized, the panel only repaints the squares the level reports as changed
+ * and the squares with animating units, painting once per refresh with a
+ * clip around all of them, see {@link #refresh()}. Each refresh ticks the
+ * {@link Level#getClock() animation clock} of the level. With a
+ * {@link Camera}, which moves along with the units, every refresh repaints
+ * the whole panel. A {@link FrameRecorder} can record a frame on every
+ * refresh. Moves made before a refresh are counted as shown by it in
+ * {@link InputLatency}.</p>
+ *
  * @author Jeroen Roosen 
  *
  */
@@ -40,6 +59,58 @@ class BoardPanel extends JPanel {
      */
     private final Game game;
 
+    /**
+     * Renders the board.
+     */
+    private final BoardRenderer renderer = new BoardRenderer(BACKGROUND_COLOR);
+
+    /**
+     * Renders the recorded frames. Keeps a background of its own at the size
+     * of the recorder, so recording does not make the panel render its
+     * background again on every refresh.
+     */
+    private final BoardRenderer recordingRenderer = new BoardRenderer(BACKGROUND_COLOR);
+
+    /**
+     * Renders the board into the pixels of an image that is then drawn, or
+     * <code>null</code> to render through the graphics context instead.
+     */
+    private RasterRenderer rasterRenderer;
+
+    /**
+     * The camera choosing the part of the board to show, or <code>null</code>
+     * to scale the whole board to the panel.
+     */
+    private Camera camera;
+
+    /**
+     * Records a frame on every refresh, or <code>null</code> if frames are
+     * not recorded.
+     */
+    private FrameRecorder recorder;
+
+    /**
+     * The indices of the squares reported as changed since the last refresh.
+     * Guarded by itself, as squares are reported by the threads moving units.
+     */
+    private final BitSet changedSquares = new BitSet();
+
+    /**
+     * Collects the changed squares of the level being displayed.
+     */
+    private final LevelObserver changeTracker = new ChangeTracker();
+
+    /**
+     * Whether a refresh has been handed to the event dispatch thread and did
+     * not run yet.
+     */
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+
+    /**
+     * The level {@link #changeTracker} observes.
+     */
+    private Level observedLevel;
+
     /**
      * Creates a new board panel that will display the provided game.
      *
@@ -59,62 +130,217 @@ class BoardPanel extends JPanel {
         Dimension size = new Dimension(w, h);
         setMinimumSize(size);
         setPreferredSize(size);
+
+        observe(game.getLevel());
+    }
+
+    private void observe(Level level) {
+        if (observedLevel != null) {
+            observedLevel.removeObserver(changeTracker);
+        }
+        observedLevel = level;
+        level.addObserver(changeTracker);
+    }
+
+    /**
+     * Switches between rendering through the graphics context, which is the
+     * default, and rendering into the pixels of an image with a
+     * {@link RasterRenderer} and drawing that image.
+     *
+     * @param raster
+     *            <code>true</code> to render with a raster renderer.
+     */
+    void setRasterRendering(boolean raster) {
+        if (!raster) {
+            rasterRenderer = null;
+        } else if (rasterRenderer == null) {
+            rasterRenderer = new RasterRenderer(Math.max(getWidth(), 1),
+                Math.max(getHeight(), 1));
+        }
+    }
+
+    /**
+     * Shows the part of the board a camera sees, with squares of a fixed
+     * size, instead of scaling the whole board to the panel. The camera
+     * takes precedence over raster rendering.
+     *
+     * @param view
+     *            The camera choosing the part of the board to show.
+     */
+    void setCamera(Camera view) {
+        assert view != null;
+        this.camera = view;
+        Dimension size = view.preferredSize(game.getLevel().getBoard());
+        setMinimumSize(size);
+        setPreferredSize(size);
+    }
+
+    /**
+     * Records a frame of the board on every refresh. Frames are rendered as
+     * shown, but at the size of the recorder, except with raster rendering,
+     * where the rendered image is copied and scaled instead.
+     *
+     * @param frames
+     *            The recorder to capture frames with.
+     */
+    void setRecorder(FrameRecorder frames) {
+        assert frames != null;
+        this.recorder = frames;
     }
 
     @Override
     public void paint(Graphics g) {
         assert g != null;
-        render(game.getLevel().getBoard(), g, getSize());
+        Level level = game.getLevel();
+        if (camera != null) {
+            renderer.renderView(level.getBoard(), level.getPellets(), g, getSize(), camera);
+            return;
+        }
+        if (rasterRenderer != null && getWidth() > 0 && getHeight() > 0) {
+            Rectangle clip = g.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(getSize());
+            }
+            rasterRenderer.setSize(getWidth(), getHeight());
+            g.drawImage(rasterRenderer.render(level, clip), 0, 0, null);
+            return;
+        }
+        renderer.render(level.getBoard(), level.getPellets(), g, getSize(),
+            getGraphicsConfiguration());
     }
 
     /**
-     * Renders the board on the given graphics context to the given dimensions.
-     *
-     * @param board
-     *            The board to render.
-     * @param graphics
-     *            The graphics context to draw on.
-     * @param window
-     *            The dimensions to scale the rendered board to.
-     */
-    private void render(Board board, Graphics graphics, Dimension window) {
-        int cellW = window.width / board.getWidth();
-        int cellH = window.height / board.getHeight();
-
-        graphics.setColor(BACKGROUND_COLOR);
-        graphics.fillRect(0, 0, window.width, window.height);
-
-        for (int y = 0; y < board.getHeight(); y++) {
-            for (int x = 0; x < board.getWidth(); x++) {
-                int cellX = x * cellW;
-                int cellY = y * cellH;
-                Square square = board.squareAt(x, y);
-                render(square, graphics, cellX, cellY, cellW, cellH);
+     * Repaints the squares that changed since the last refresh, and the
+     * squares with units that are animating. Looping animations, such as
+     * walking units, are only repainted while the level is in progress;
+     * animations that end by themselves are played to the end. Nothing is
+     * painted at all if nothing changed. May be called from any thread.
+     */
+    void refresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::repaintChanges);
+        }
+    }
+
+    /**
+     * Repaints the changed squares on the event dispatch thread.
+     */
+    private void repaintChanges() {
+        refreshPending.set(false);
+        long shown = InputLatency.shared().frameStarted();
+        Level level = game.getLevel();
+        level.getClock().tick();
+        if (level != observedLevel) {
+            observe(level);
+            repaint();
+            return;
+        }
+        boolean painted = true;
+        if (camera != null) {
+            synchronized (changedSquares) {
+                changedSquares.clear();
             }
+            paintImmediately(0, 0, getWidth(), getHeight());
+        } else {
+            painted = repaintSquares(level);
+        }
+        if (painted) {
+            InputLatency.shared().framePainted(shown);
+            record(level);
         }
     }
 
     /**
-     * Renders a single square on the given graphics context on the specified
-     * rectangle.
+     * Paints the squares that changed and the squares with animating units
+     * in one go, clipped to the smallest rectangle of squares holding all of
+     * them, so the level is rendered once however many squares changed.
      *
-     * @param square
-     *            The square to render.
-     * @param graphics
-     *            The graphics context to draw on.
-     * @param x
-     *            The x position to start drawing.
-     * @param y
-     *            The y position to start drawing.
-     * @param width
-     *            The width of this square (in pixels.)
-     * @param height
-     *            The height of this square (in pixels.)
-     */
-    private void render(Square square, Graphics graphics, int x, int y, int width, int height) {
-        square.getSprite().draw(graphics, x, y, width, height);
-        for (Unit unit : square.getOccupants()) {
-            unit.getSprite().draw(graphics, x, y, width, height);
+     * @param level
+     *            The level displayed.
+     * @return <code>true</code> iff anything was painted.
+     */
+    private boolean repaintSquares(Level level) {
+        BitSet squares = new BitSet();
+        synchronized (changedSquares) {
+            squares.or(changedSquares);
+            changedSquares.clear();
+        }
+        Board board = level.getBoard();
+        for (Square square : board.getOccupiedSquares()) {
+            if (isAnimating(square, level.isInProgress())) {
+                squares.set(square.getIndex());
+            }
+        }
+        int cellW = getWidth() / board.getWidth();
+        int cellH = getHeight() / board.getHeight();
+        if (squares.isEmpty() || cellW <= 0 || cellH <= 0) {
+            return false;
+        }
+        int width = board.getWidth();
+        int left = width;
+        int right = 0;
+        for (int i = squares.nextSetBit(0); i >= 0; i = squares.nextSetBit(i + 1)) {
+            left = Math.min(left, i % width);
+            right = Math.max(right, i % width);
+        }
+        int top = squares.nextSetBit(0) / width;
+        int bottom = (squares.length() - 1) / width;
+        paintImmediately(left * cellW, top * cellH, (right - left + 1) * cellW,
+            (bottom - top + 1) * cellH);
+        return true;
+    }
+
+    private void record(Level level) {
+        if (recorder == null) {
+            return;
+        }
+        if (rasterRenderer != null && camera == null) {
+            recorder.capture(rasterRenderer.getImage());
+            return;
+        }
+        Dimension size = recorder.getSize();
+        recorder.capture(graphics -> {
+            if (camera == null) {
+                recordingRenderer.render(level.getBoard(), level.getPellets(), graphics, size,
+                    null);
+            } else {
+                recordingRenderer.renderView(level.getBoard(), level.getPellets(), graphics,
+                    size, camera);
+            }
+        });
+    }
+
+    private static boolean isAnimating(Square square, boolean inProgress) {
+        List<Unit> occupants = square.getOccupants();
+        for (int i = 0; i < occupants.size(); i++) {
+            Sprite sprite = occupants.get(i).getSprite();
+            if (sprite.isAnimating() && (inProgress || !sprite.isLooping())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Notes the squares the level reports as changed.
+     */
+    private final class ChangeTracker implements LevelObserver {
+
+        @Override
+        public void levelWon() {
+            // the squares that changed were reported already
+        }
+
+        @Override
+        public void levelLost() {
+            // the squares that changed were reported already
+        }
+
+        @Override
+        public void squareChanged(Square square) {
+            synchronized (changedSquares) {
+                changedSquares.set(square.getIndex());
+            }
         }
     }
 }
@@ -0,0 +1,222 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.PelletLayer;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+/**
+ * Renders a board with its pellets and units onto a graphics context, for
+ * both the passively painted {@link BoardPanel} and the actively rendered
+ * {@link BoardCanvas}.
+ */
+final class BoardRenderer {
+
+    /**
+     * The background colour of the board.
+     */
+    private final Color backgroundColor;
+
+    /**
+     * The walls and floors of the board, rendered at the current cell size.
+     */
+    private final BackgroundLayer background;
+
+    /**
+     * Creates a new renderer.
+     *
+     * @param backgroundColor
+     *            The colour around the board and behind transparent sprites.
+     */
+    BoardRenderer(Color backgroundColor) {
+        this.backgroundColor = backgroundColor;
+        this.background = new BackgroundLayer(backgroundColor);
+    }
+
+    /**
+     * Renders the board on the given graphics context to the given dimensions.
+     * Walls and floors are copied from the {@link BackgroundLayer}, which is
+     * only rendered again when the board or the cell size changes, so only
+     * the pellets and units are drawn square by square. Only the squares
+     * within the clip of the graphics context are drawn.
+     *
+     * @param board
+     *            The board to render.
+     * @param pellets
+     *            The pellets on the board that are not stored as units.
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param window
+     *            The dimensions to scale the rendered board to.
+     * @param configuration
+     *            The configuration of the screen drawn on, or
+     *            <code>null</code> if it is not known.
+     */
+    void render(Board board, PelletLayer pellets, Graphics graphics, Dimension window,
+                GraphicsConfiguration configuration) {
+        int cellW = window.width / board.getWidth();
+        int cellH = window.height / board.getHeight();
+
+        graphics.setColor(backgroundColor);
+        if (cellW <= 0 || cellH <= 0) {
+            graphics.fillRect(0, 0, window.width, window.height);
+            return;
+        }
+        int boardW = board.getWidth() * cellW;
+        int boardH = board.getHeight() * cellH;
+        graphics.drawImage(background.get(board, cellW, cellH, configuration),
+            0, 0, null);
+        graphics.fillRect(boardW, 0, window.width - boardW, window.height);
+        graphics.fillRect(0, boardH, boardW, window.height - boardH);
+
+        Rectangle clip = graphics.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(window);
+        }
+        Rectangle cells = new Rectangle(clip.x / cellW, clip.y / cellH,
+            (clip.x + clip.width - 1) / cellW - clip.x / cellW + 1,
+            (clip.y + clip.height - 1) / cellH - clip.y / cellH + 1)
+            .intersection(new Rectangle(board.getWidth(), board.getHeight()));
+        renderPellets(board, pellets, graphics, cells, cellW, cellH);
+        renderUnits(board, graphics, cells, cellW, cellH);
+    }
+
+    /**
+     * Renders the pellets of a pellet layer.
+     *
+     * @param board
+     *            The board the pellets are on.
+     * @param pellets
+     *            The pellets to render.
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param cells
+     *            The columns and rows of the squares to render.
+     * @param cellW
+     *            The width of a square (in pixels.)
+     * @param cellH
+     *            The height of a square (in pixels.)
+     */
+    private void renderPellets(Board board, PelletLayer pellets, Graphics graphics,
+                               Rectangle cells, int cellW, int cellH) {
+        Sprite sprite = pellets.getSprite();
+        int width = board.getWidth();
+        for (int y = cells.y; y < cells.y + cells.height; y++) {
+            int end = y * width + cells.x + cells.width;
+            for (int i = pellets.nextPellet(y * width + cells.x); i >= 0 && i < end;
+                 i = pellets.nextPellet(i + 1)) {
+                sprite.draw(graphics, i % width * cellW, y * cellH, cellW, cellH);
+            }
+        }
+    }
+
+    /**
+     * Renders the units on the occupied squares of the board.
+     *
+     * @param board
+     *            The board with the units.
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param cells
+     *            The columns and rows of the squares to render.
+     * @param cellW
+     *            The width of a square (in pixels.)
+     * @param cellH
+     *            The height of a square (in pixels.)
+     */
+    private void renderUnits(Board board, Graphics graphics, Rectangle cells,
+                             int cellW, int cellH) {
+        int width = board.getWidth();
+        for (Square square : board.getOccupiedSquares()) {
+            int column = square.getIndex() % width;
+            int row = square.getIndex() / width;
+            if (!cells.contains(column, row)) {
+                continue;
+            }
+            List<Unit> occupants = square.getOccupants();
+            for (int i = 0; i < occupants.size(); i++) {
+                occupants.get(i).getSprite()
+                    .draw(graphics, column * cellW, row * cellH, cellW, cellH);
+            }
+        }
+    }
+
+    /**
+     * Renders the part of the board a camera sees on the given graphics
+     * context. Only the visible squares are drawn, one by one, so the time
+     * this takes depends on the size of the window and not on the size of
+     * the board. Squares outside the clip of the graphics context are
+     * skipped.
+     *
+     * @param board
+     *            The board to render.
+     * @param pellets
+     *            The pellets on the board that are not stored as units.
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param window
+     *            The dimensions of the window.
+     * @param camera
+     *            The camera choosing the part of the board to show.
+     */
+    void renderView(Board board, PelletLayer pellets, Graphics graphics, Dimension window,
+                    Camera camera) {
+        Camera.View view = camera.view(board, window.width, window.height);
+        int size = camera.getSquareSize();
+        Rectangle clip = graphics.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(window);
+        }
+        graphics.setColor(backgroundColor);
+        graphics.fillRect(clip.x, clip.y, clip.width, clip.height);
+        for (int row = 0; row < view.getRows(); row++) {
+            int y = view.getOffsetY() + row * size;
+            if (y + size <= clip.y || y >= clip.y + clip.height) {
+                continue;
+            }
+            int boardY = Math.floorMod(view.getTop() + row, board.getHeight());
+            for (int column = 0; column < view.getColumns(); column++) {
+                int x = view.getOffsetX() + column * size;
+                if (x + size <= clip.x || x >= clip.x + clip.width) {
+                    continue;
+                }
+                int boardX = Math.floorMod(view.getLeft() + column, board.getWidth());
+                renderSquare(board.squareAt(boardX, boardY), pellets, graphics,
+                    new Rectangle(x, y, size, size));
+            }
+        }
+    }
+
+    /**
+     * Renders a square with its pellet and units.
+     *
+     * @param square
+     *            The square to render.
+     * @param pellets
+     *            The pellets on the board that are not stored as units.
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param area
+     *            The area to draw the square in.
+     */
+    private void renderSquare(Square square, PelletLayer pellets, Graphics graphics,
+                              Rectangle area) {
+        square.getSprite().draw(graphics, area.x, area.y, area.width, area.height);
+        if (pellets.hasPellet(square.getIndex())) {
+            pellets.getSprite().draw(graphics, area.x, area.y, area.width, area.height);
+        }
+        List<Unit> occupants = square.getOccupants();
+        for (int i = 0; i < occupants.size(); i++) {
+            occupants.get(i).getSprite().draw(graphics, area.x, area.y, area.width,
+                area.height);
+        }
+    }
+}
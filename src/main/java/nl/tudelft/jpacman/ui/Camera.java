@@ -0,0 +1,262 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Dimension;
+import java.awt.Point;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * A view on part of a board, with squares of a fixed size, centred on a
+ * unit it follows or on a square it was panned to. Boards wrap around at
+ * their edges, and so does the view. A view never shows a square twice, so
+ * boards smaller than the view are shown whole.
+ *
+ * <p>The camera may be moved from any thread, while a view is rendered.</p>
+ */
+public class Camera {
+
+    /**
+     * The largest number of squares across the window the camera asks for.
+     */
+    private static final int MAX_VIEW_SQUARES = 40;
+
+    /**
+     * The width and height of a square on the screen, in pixels.
+     */
+    private final int squareSize;
+
+    /**
+     * The unit to keep in the centre, or <code>null</code> if the camera
+     * stays where it was panned to.
+     */
+    private Unit target;
+
+    /**
+     * The column of the square in the centre of the view.
+     */
+    private int centreX;
+
+    /**
+     * The row of the square in the centre of the view.
+     */
+    private int centreY;
+
+    /**
+     * Creates a new camera centred on the top left square.
+     *
+     * @param squareSize
+     *            The width and height of a square on the screen, in pixels.
+     */
+    public Camera(int squareSize) {
+        assert squareSize > 0;
+        this.squareSize = squareSize;
+    }
+
+    /**
+     * @return The width and height of a square on the screen, in pixels.
+     */
+    public int getSquareSize() {
+        return squareSize;
+    }
+
+    /**
+     * Returns the window size that shows a board whole, or a part of at most
+     * {@value #MAX_VIEW_SQUARES} squares across if the board is larger.
+     *
+     * @param board
+     *            The board viewed.
+     * @return The preferred size of the window.
+     */
+    Dimension preferredSize(Board board) {
+        return new Dimension(Math.min(board.getWidth(), MAX_VIEW_SQUARES) * squareSize,
+            Math.min(board.getHeight(), MAX_VIEW_SQUARES) * squareSize);
+    }
+
+    /**
+     * Keeps a unit in the centre of the view, for as long as it is on the
+     * board. While it is not, the view stays where the unit was last seen.
+     *
+     * @param unit
+     *            The unit to follow.
+     */
+    public synchronized void follow(Unit unit) {
+        assert unit != null;
+        this.target = unit;
+    }
+
+    /**
+     * Stops following a unit and centres the view on a square.
+     *
+     * @param x
+     *            The column of the square.
+     * @param y
+     *            The row of the square.
+     */
+    public synchronized void panTo(int x, int y) {
+        target = null;
+        centreX = x;
+        centreY = y;
+    }
+
+    /**
+     * Stops following a unit and moves the view by a number of squares from
+     * where it is centred now.
+     *
+     * @param dx
+     *            The number of columns to move right.
+     * @param dy
+     *            The number of rows to move down.
+     */
+    public synchronized void panBy(int dx, int dy) {
+        if (target != null && target.hasSquare()) {
+            updateCentre(target.getSquare());
+        }
+        panTo(centreX + dx, centreY + dy);
+    }
+
+    /**
+     * Returns the square the view is centred on, following the target if
+     * there is one.
+     *
+     * @param board
+     *            The board viewed.
+     * @return The column and row of the square in the centre, within the
+     *         board.
+     */
+    synchronized Point centre(Board board) {
+        if (target != null && target.hasSquare() && target.getSquare().getBoard() == board) {
+            updateCentre(target.getSquare());
+        }
+        return new Point(Math.floorMod(centreX, board.getWidth()),
+            Math.floorMod(centreY, board.getHeight()));
+    }
+
+    private void updateCentre(Square square) {
+        int width = square.getBoard().getWidth();
+        centreX = square.getIndex() % width;
+        centreY = square.getIndex() / width;
+    }
+
+    /**
+     * Computes which squares of a board are visible in a window, and where
+     * they are drawn.
+     *
+     * @param board
+     *            The board viewed.
+     * @param width
+     *            The width of the window, in pixels.
+     * @param height
+     *            The height of the window, in pixels.
+     * @return The visible squares.
+     */
+    View view(Board board, int width, int height) {
+        Point centre = centre(board);
+        int columns = Math.min(visible(width), board.getWidth());
+        int rows = Math.min(visible(height), board.getHeight());
+        return new View(centre.x - columns / 2, centre.y - rows / 2, columns, rows,
+            (width - columns * squareSize) / 2, (height - rows * squareSize) / 2);
+    }
+
+    /**
+     * @return The number of squares at least partly visible across the given
+     *         number of pixels, when the centre square is in the middle.
+     */
+    private int visible(int pixels) {
+        int whole = (pixels + squareSize - 1) / squareSize;
+        return whole + 1 - whole % 2;
+    }
+
+    /**
+     * The squares visible in a window. Columns and rows may lie outside the
+     * board, in which case they wrap around.
+     */
+    static final class View {
+
+        /**
+         * The column of the leftmost visible square.
+         */
+        private final int left;
+
+        /**
+         * The row of the topmost visible square.
+         */
+        private final int top;
+
+        /**
+         * The number of visible columns.
+         */
+        private final int columns;
+
+        /**
+         * The number of visible rows.
+         */
+        private final int rows;
+
+        /**
+         * The x coordinate in the window of the leftmost square.
+         */
+        private final int offsetX;
+
+        /**
+         * The y coordinate in the window of the topmost square.
+         */
+        private final int offsetY;
+
+        private View(int left, int top, int columns, int rows, int offsetX, int offsetY) {
+            this.left = left;
+            this.top = top;
+            this.columns = columns;
+            this.rows = rows;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+        }
+
+        /**
+         * @return The column of the leftmost visible square, which may lie
+         *         outside the board.
+         */
+        int getLeft() {
+            return left;
+        }
+
+        /**
+         * @return The row of the topmost visible square, which may lie
+         *         outside the board.
+         */
+        int getTop() {
+            return top;
+        }
+
+        /**
+         * @return The number of visible columns.
+         */
+        int getColumns() {
+            return columns;
+        }
+
+        /**
+         * @return The number of visible rows.
+         */
+        int getRows() {
+            return rows;
+        }
+
+        /**
+         * @return The x coordinate in the window of the leftmost square,
+         *         which is negative if it is only partly visible.
+         */
+        int getOffsetX() {
+            return offsetX;
+        }
+
+        /**
+         * @return The y coordinate in the window of the topmost square,
+         *         which is negative if it is only partly visible.
+         */
+        int getOffsetY() {
+            return offsetY;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package nl.tudelft.jpacman.ui;
+
+import java.util.Arrays;
+
+/**
+ * Frame statistics of an actively rendered UI: the times between the most
+ * recent frames shown, and the number of frames shown and skipped since
+ * rendering started. Frames are recorded by the render thread and may be
+ * read from any thread.
+ */
+public final class FrameMetrics {
+
+    /**
+     * The number of recent frame times kept for the percentiles.
+     */
+    private static final int WINDOW = 1024;
+
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * The number of nanoseconds in a millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * The highest percentile.
+     */
+    private static final double ALL = 100.0;
+
+    /**
+     * The percentile of the typical frame time, shown by {@link #toString()}.
+     */
+    private static final double MEDIAN = 50.0;
+
+    /**
+     * The percentile of the worst frame times, shown by {@link #toString()}.
+     */
+    private static final double TAIL = 99.0;
+
+    /**
+     * The most recent frame times, in nanoseconds, as a ring buffer.
+     */
+    private final long[] frameTimes = new long[WINDOW];
+
+    /**
+     * The number of frames shown.
+     */
+    private long frameCount;
+
+    /**
+     * The number of frame times recorded, which is one less than the number
+     * of frames shown, as the first frame has no frame before it.
+     */
+    private long timedFrames;
+
+    /**
+     * The number of frames skipped because rendering fell behind.
+     */
+    private long droppedFrames;
+
+    /**
+     * Records a frame that was shown.
+     *
+     * @param nanos
+     *            The time since the previous frame was shown, in nanoseconds.
+     */
+    synchronized void frameShown(long nanos) {
+        assert nanos >= 0;
+        frameTimes[(int) (timedFrames % WINDOW)] = nanos;
+        timedFrames++;
+        frameCount++;
+    }
+
+    /**
+     * Records the first frame shown, which has no time since a previous
+     * frame.
+     */
+    synchronized void frameShown() {
+        frameCount++;
+    }
+
+    /**
+     * Records frames that were skipped.
+     *
+     * @param count
+     *            The number of frames skipped.
+     */
+    synchronized void framesDropped(long count) {
+        assert count >= 0;
+        droppedFrames += count;
+    }
+
+    /**
+     * @return The number of frames shown since rendering started.
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return The number of frames skipped since rendering started, because
+     *         the previous frame took longer than the frame interval.
+     */
+    public synchronized long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * Returns a percentile of the recent frame times.
+     *
+     * @param percentile
+     *            The percentile, from 0 to 100.
+     * @return The frame time below which the given percentage of recent frame
+     *         times fall, in nanoseconds, or 0 if no frame was shown yet.
+     */
+    public synchronized long getFrameTime(double percentile) {
+        assert percentile >= 0.0 && percentile <= ALL;
+        int size = recentFrames();
+        if (size == 0) {
+            return 0L;
+        }
+        long[] sorted = Arrays.copyOf(frameTimes, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / ALL * size) - 1;
+        return sorted[Math.max(rank, 0)];
+    }
+
+    /**
+     * @return The average number of frames shown per second over the recent
+     *         frames, or 0 if no frame was shown yet.
+     */
+    public synchronized double getFramesPerSecond() {
+        int size = recentFrames();
+        long total = 0L;
+        for (int i = 0; i < size; i++) {
+            total += frameTimes[i];
+        }
+        if (total == 0L) {
+            return 0.0;
+        }
+        return size * NANOS_PER_SECOND / total;
+    }
+
+    private int recentFrames() {
+        return (int) Math.min(timedFrames, WINDOW);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%.1f fps, p50 %.2f ms, p99 %.2f ms, %d shown, %d dropped",
+            getFramesPerSecond(), getFrameTime(MEDIAN) / NANOS_PER_MILLI,
+            getFrameTime(TAIL) / NANOS_PER_MILLI, frameCount, droppedFrames);
+    }
+}
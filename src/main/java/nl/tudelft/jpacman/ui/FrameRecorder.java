@@ -0,0 +1,412 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOInvalidTreeException;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Records frames of a game to disk, as a numbered sequence of PNG images or
+ * as one animated GIF, without slowing the game down. Frames are copied into
+ * one of a fixed pool of buffers and encoded by background threads. When all
+ * buffers are waiting to be encoded, new frames are dropped instead of
+ * waiting for the encoders.
+ *
+ * <p>Frames may be captured from one thread at a time, and the counters read
+ * from any thread. The recorder must be closed to finish the last frames.</p>
+ */
+public class FrameRecorder implements Closeable {
+
+    /**
+     * The number of buffers per encoding thread, so encoders always have the
+     * next frame ready while the game renders another.
+     */
+    private static final int BUFFERS_PER_ENCODER = 4;
+
+    /**
+     * The number of milliseconds in a unit of GIF frame delay.
+     */
+    private static final int MILLIS_PER_GIF_DELAY = 10;
+
+    /**
+     * The size of the frames.
+     */
+    private final Dimension size;
+
+    /**
+     * The buffers free to capture a frame into.
+     */
+    private final BlockingQueue<BufferedImage> freeBuffers;
+
+    /**
+     * Writes the frames.
+     */
+    private final Encoder encoder;
+
+    /**
+     * Runs the encoder on the frames captured.
+     */
+    private final ExecutorService encoders;
+
+    /**
+     * The number of frames captured to be encoded.
+     */
+    private final AtomicLong capturedFrames = new AtomicLong();
+
+    /**
+     * The number of frames dropped because no buffer was free.
+     */
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    /**
+     * The number of frames written.
+     */
+    private final AtomicLong encodedFrames = new AtomicLong();
+
+    /**
+     * The first error writing a frame, or <code>null</code> if there was none.
+     */
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    /**
+     * Whether the recorder was closed.
+     */
+    private volatile boolean closed;
+
+    private FrameRecorder(Encoder encoder, Dimension size, int threads) {
+        assert size.width > 0 && size.height > 0;
+        this.encoder = encoder;
+        this.size = new Dimension(size);
+        int buffers = threads * BUFFERS_PER_ENCODER;
+        this.freeBuffers = new ArrayBlockingQueue<>(buffers);
+        for (int i = 0; i < buffers; i++) {
+            freeBuffers.add(new BufferedImage(size.width, size.height,
+                BufferedImage.TYPE_INT_RGB));
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.encoders = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "frame-encoder-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a recorder writing each frame to a PNG image in a directory,
+     * named <code>frame-000000.png</code>, <code>frame-000001.png</code>
+     * and so on, with frames encoded in parallel.
+     *
+     * @param directory
+     *            The directory to write the images to, which is created if
+     *            it does not exist.
+     * @param size
+     *            The size of the frames, in pixels.
+     * @param threads
+     *            The number of threads encoding frames.
+     * @return The new recorder.
+     * @throws IOException
+     *             If the directory could not be created.
+     */
+    public static FrameRecorder pngSequence(Path directory, Dimension size, int threads)
+        throws IOException {
+        assert threads > 0;
+        Files.createDirectories(directory);
+        return new FrameRecorder(new PngEncoder(directory), size, threads);
+    }
+
+    /**
+     * Creates a recorder writing all frames to one looping animated GIF.
+     * Frames are encoded in order on a single thread.
+     *
+     * @param file
+     *            The file to write the animation to.
+     * @param size
+     *            The size of the frames, in pixels.
+     * @param frameDelay
+     *            The time each frame is shown, in milliseconds, which GIF
+     *            rounds down to hundredths of a second.
+     * @return The new recorder.
+     * @throws IOException
+     *             If the file could not be created.
+     */
+    public static FrameRecorder gif(Path file, Dimension size, int frameDelay)
+        throws IOException {
+        assert frameDelay > 0;
+        return new FrameRecorder(new GifEncoder(file, frameDelay / MILLIS_PER_GIF_DELAY),
+            size, 1);
+    }
+
+    /**
+     * @return The size of the frames, in pixels.
+     */
+    public Dimension getSize() {
+        return new Dimension(size);
+    }
+
+    /**
+     * Captures a frame by letting a painter draw it into a free buffer of
+     * {@link #getSize()}, then hands the buffer to an encoder. If no buffer
+     * is free, the frame is dropped without painting it.
+     *
+     * @param painter
+     *            Draws the frame on the graphics context of the buffer.
+     * @return <code>true</code> iff the frame was captured.
+     */
+    public boolean capture(Consumer<Graphics2D> painter) {
+        if (closed) {
+            throw new IllegalStateException("Recorder is closed.");
+        }
+        BufferedImage buffer = freeBuffers.poll();
+        if (buffer == null) {
+            droppedFrames.incrementAndGet();
+            return false;
+        }
+        Graphics2D graphics = buffer.createGraphics();
+        try {
+            painter.accept(graphics);
+        } finally {
+            graphics.dispose();
+        }
+        long frame = capturedFrames.getAndIncrement();
+        encoders.execute(() -> encode(frame, buffer));
+        return true;
+    }
+
+    /**
+     * Captures a copy of a rendered image, scaled to {@link #getSize()} if
+     * its size differs. If no buffer is free, the frame is dropped.
+     *
+     * @param image
+     *            The rendered frame.
+     * @return <code>true</code> iff the frame was captured.
+     */
+    public boolean capture(BufferedImage image) {
+        return capture(graphics -> graphics.drawImage(image, 0, 0, size.width, size.height,
+            null));
+    }
+
+    private void encode(long frame, BufferedImage buffer) {
+        try {
+            if (failure.get() == null) {
+                encoder.encode(frame, buffer);
+                encodedFrames.incrementAndGet();
+            }
+        } catch (IOException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            freeBuffers.add(buffer);
+        }
+    }
+
+    /**
+     * @return The number of frames captured to be encoded.
+     */
+    public long getCapturedFrames() {
+        return capturedFrames.get();
+    }
+
+    /**
+     * @return The number of frames dropped because the encoders fell behind.
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * @return The number of frames written so far.
+     */
+    public long getEncodedFrames() {
+        return encodedFrames.get();
+    }
+
+    /**
+     * Stops capturing frames, waits until the frames captured are written and
+     * closes the output. Frames are no longer written after the first error.
+     *
+     * @throws IOException
+     *             If a frame or the output could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        encoders.shutdown();
+        try {
+            encoders.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing frames.");
+        } finally {
+            encoder.close();
+        }
+        IOException error = failure.get();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d frames captured, %d dropped, %d encoded",
+            getCapturedFrames(), getDroppedFrames(), getEncodedFrames());
+    }
+
+    /**
+     * Writes frames in some image format.
+     */
+    private interface Encoder extends Closeable {
+
+        /**
+         * Writes a frame.
+         *
+         * @param frame
+         *            The number of the frame, counting from 0.
+         * @param image
+         *            The frame.
+         * @throws IOException
+         *             If the frame could not be written.
+         */
+        void encode(long frame, BufferedImage image) throws IOException;
+    }
+
+    /**
+     * Writes each frame to its own PNG image.
+     */
+    private static final class PngEncoder implements Encoder {
+
+        /**
+         * The directory to write the images to.
+         */
+        private final Path directory;
+
+        private PngEncoder(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        public void encode(long frame, BufferedImage image) throws IOException {
+            Path file = directory.resolve(String.format("frame-%06d.png", frame));
+            if (!ImageIO.write(image, "png", file.toFile())) {
+                throw new IOException("No PNG writer available.");
+            }
+        }
+
+        @Override
+        public void close() {
+            // every image is closed when written
+        }
+    }
+
+    /**
+     * Writes the frames, in order, to one looping animated GIF.
+     */
+    private static final class GifEncoder implements Encoder {
+
+        /**
+         * The name of the GIF image metadata format.
+         */
+        private static final String FORMAT = "javax_imageio_gif_image_1.0";
+
+        /**
+         * The output stream of the animation.
+         */
+        private final ImageOutputStream output;
+
+        /**
+         * Writes the animation to {@link #output}.
+         */
+        private final ImageWriter writer;
+
+        /**
+         * The time each frame is shown, in hundredths of a second.
+         */
+        private final int delay;
+
+        private GifEncoder(Path file, int delay) throws IOException {
+            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("gif");
+            if (!writers.hasNext()) {
+                throw new IOException("No GIF writer available.");
+            }
+            this.writer = writers.next();
+            this.output = ImageIO.createImageOutputStream(file.toFile());
+            if (output == null) {
+                throw new IOException("Cannot write to " + file + ".");
+            }
+            this.delay = delay;
+            writer.setOutput(output);
+            writer.prepareWriteSequence(null);
+        }
+
+        @Override
+        public void encode(long frame, BufferedImage image) throws IOException {
+            IIOMetadata metadata = writer.getDefaultImageMetadata(
+                ImageTypeSpecifier.createFromRenderedImage(image), null);
+            IIOMetadataNode root = new IIOMetadataNode(FORMAT);
+            IIOMetadataNode control = new IIOMetadataNode("GraphicControlExtension");
+            control.setAttribute("disposalMethod", "none");
+            control.setAttribute("userInputFlag", "FALSE");
+            control.setAttribute("transparentColorFlag", "FALSE");
+            control.setAttribute("delayTime", Integer.toString(delay));
+            control.setAttribute("transparentColorIndex", "0");
+            root.appendChild(control);
+            if (frame == 0) {
+                root.appendChild(loopForever());
+            }
+            try {
+                metadata.mergeTree(FORMAT, root);
+            } catch (IIOInvalidTreeException e) {
+                throw new IOException("Cannot set the frame delay.", e);
+            }
+            writer.writeToSequence(new IIOImage(image, null, metadata), null);
+        }
+
+        /**
+         * @return The application extension that makes browsers and viewers
+         *         loop the animation.
+         */
+        private static IIOMetadataNode loopForever() {
+            IIOMetadataNode extensions = new IIOMetadataNode("ApplicationExtensions");
+            IIOMetadataNode netscape = new IIOMetadataNode("ApplicationExtension");
+            netscape.setAttribute("applicationID", "NETSCAPE");
+            netscape.setAttribute("authenticationCode", "2.0");
+            netscape.setUserObject(new byte[] {1, 0, 0});
+            extensions.appendChild(netscape);
+            return extensions;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                writer.endWriteSequence();
+            } finally {
+                writer.dispose();
+                output.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.stream.IntStream;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+
+/**
+ * Renders levels into an image in memory instead of onto a screen, so it also
+ * works without a display, for instance with
+ * <code>java.awt.headless=true</code>. The same image is drawn over on every
+ * frame, so rendering many frames allocates no new images.
+ *
+ * <p>Very large boards can be rendered in horizontal bands, each band on its
+ * own core. Bands only draw the squares within them, so no square is drawn
+ * twice.</p>
+ */
+public class OffscreenRenderer {
+
+    /**
+     * The background colour of the board.
+     */
+    private static final Color BACKGROUND_COLOR = Color.BLACK;
+
+    /**
+     * The image frames are rendered into.
+     */
+    private final BufferedImage image;
+
+    /**
+     * Renders the board.
+     */
+    private final BoardRenderer renderer = new BoardRenderer(BACKGROUND_COLOR);
+
+    /**
+     * The number of bands to render in parallel.
+     */
+    private int bands = 1;
+
+    /**
+     * Creates a new renderer that renders levels scaled to an image of the
+     * given size.
+     *
+     * @param width
+     *            The width of the image, in pixels.
+     * @param height
+     *            The height of the image, in pixels.
+     */
+    public OffscreenRenderer(int width, int height) {
+        assert width > 0 && height > 0;
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Creates a new renderer for an image in which each square of a board
+     * takes the given number of pixels.
+     *
+     * @param board
+     *            The board to size the image for.
+     * @param squareSize
+     *            The width and height of a square, in pixels.
+     * @return The new renderer.
+     */
+    public static OffscreenRenderer forBoard(Board board, int squareSize) {
+        assert squareSize > 0;
+        return new OffscreenRenderer(board.getWidth() * squareSize,
+            board.getHeight() * squareSize);
+    }
+
+    /**
+     * Renders the board in horizontal bands in parallel, which pays off for
+     * boards of thousands of squares.
+     *
+     * @param bandCount
+     *            The number of bands, 1 to render on the calling thread only.
+     * @return This renderer.
+     */
+    public OffscreenRenderer withBands(int bandCount) {
+        assert bandCount > 0;
+        this.bands = bandCount;
+        return this;
+    }
+
+    /**
+     * @return The image frames are rendered into.
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Renders a level into the image, over the previous frame. Ticks the
+     * {@link AnimationClock} of the level first, so animations show the
+     * current time, or a later time the clock was set to. Must only be
+     * called from one thread at a time.
+     *
+     * @param level
+     *            The level to render.
+     * @return The image, which the next call renders over.
+     */
+    public BufferedImage render(Level level) {
+        level.getClock().tick();
+        Board board = level.getBoard();
+        int rows = board.getHeight();
+        int rowHeight = image.getHeight() / rows;
+        int count = Math.min(bands, rows);
+        if (count <= 1 || rowHeight <= 0) {
+            renderBand(level, 0, image.getHeight());
+            return image;
+        }
+        IntStream.range(0, count).parallel().forEach(band -> {
+            int top = rows * band / count * rowHeight;
+            int bottom = rows * (band + 1) / count * rowHeight;
+            if (band == count - 1) {
+                bottom = image.getHeight();
+            }
+            renderBand(level, top, bottom);
+        });
+        return image;
+    }
+
+    private void renderBand(Level level, int top, int bottom) {
+        Graphics graphics = image.createGraphics();
+        try {
+            graphics.setClip(0, top, image.getWidth(), bottom - top);
+            renderer.render(level.getBoard(), level.getPellets(), graphics,
+                new Dimension(image.getWidth(), image.getHeight()), null);
+        } finally {
+            graphics.dispose();
+        }
+    }
+}
@@ -4,8 +4,12 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.util.Map;
 
+import nl.tudelft.jpacman.game.InputLatency;
+
 /**
- * A key listener based on a set of keyCode-action pairs.
+ * A key listener based on a set of keyCode-action pairs. Each key press
+ * that runs an action is numbered by {@link InputLatency}, so the time until
+ * its effect is shown can be measured.
  *
  * @author Jeroen Roosen 
  */
@@ -30,7 +34,13 @@ class PacKeyListener implements KeyListener {
         assert event != null;
         Action action = mappings.get(event.getKeyCode());
         if (action != null) {
-            action.doAction();
+            InputLatency latency = InputLatency.shared();
+            latency.pressed(event.getWhen());
+            try {
+                action.doAction();
+            } finally {
+                latency.dispatched();
+            }
         }
     }
 
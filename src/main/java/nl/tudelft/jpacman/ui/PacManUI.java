@@ -1,14 +1,17 @@
 package nl.tudelft.jpacman.ui;
 
 import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.Container;
 import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.JFrame;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 
 import nl.tudelft.jpacman.game.Game;
@@ -47,9 +50,34 @@ public class PacManUI extends JFrame {
     private final ScorePanel scorePanel;
 
     /**
-     * The panel displaying the game.
+     * The panel displaying the game, or <code>null</code> if the game is
+     * rendered actively.
      */
-    private final BoardPanel boardPanel;
+    private BoardPanel boardPanel;
+
+    /**
+     * The canvas displaying the game, or <code>null</code> if the game is
+     * painted by Swing.
+     */
+    private BoardCanvas boardCanvas;
+
+    /**
+     * The loop rendering the game, or <code>null</code> if the game is
+     * painted by Swing.
+     */
+    private RenderLoop renderLoop;
+
+    /**
+     * Whether a refresh of the scores has been handed to the event dispatch
+     * thread and did not run yet.
+     */
+    private final AtomicBoolean scoreRefreshPending = new AtomicBoolean();
+
+    /**
+     * The camera choosing the part of the board to show, or <code>null</code>
+     * if the whole board is shown.
+     */
+    private Camera camera;
 
     /**
      * Creates a new UI for a JPacman game.
@@ -68,6 +96,30 @@ public class PacManUI extends JFrame {
     public PacManUI(final Game game, final Map<String, Action> buttons,
                     final Map<Integer, Action> keyMappings,
                     ScoreFormatter scoreFormatter) {
+        this(game, buttons, keyMappings, scoreFormatter, 0);
+    }
+
+    /**
+     * Creates a new UI for a JPacman game.
+     *
+     * @param game
+     *            The game to play.
+     * @param buttons
+     *            The map of caption-to-action entries that will appear as
+     *            buttons on the interface.
+     * @param keyMappings
+     *            The map of keyCode-to-action entries that will be added as key
+     *            listeners to the interface.
+     * @param scoreFormatter
+     *            The formatter used to display the current score.
+     * @param framesPerSecond
+     *            The target frame rate of a dedicated render thread drawing
+     *            the game through a buffer strategy, or 0 to have Swing paint
+     *            the game {@value #FRAME_INTERVAL} milliseconds apart.
+     */
+    public PacManUI(final Game game, final Map<String, Action> buttons,
+                    final Map<Integer, Action> keyMappings,
+                    ScoreFormatter scoreFormatter, int framesPerSecond) {
         super("JPacman");
         assert game != null;
         assert buttons != null;
@@ -85,32 +137,156 @@ public class PacManUI extends JFrame {
             scorePanel.setScoreFormatter(scoreFormatter);
         }
 
-        boardPanel = new BoardPanel(game);
-
         Container contentPanel = getContentPane();
         contentPanel.setLayout(new BorderLayout());
         contentPanel.add(buttonPanel, BorderLayout.SOUTH);
         contentPanel.add(scorePanel, BorderLayout.NORTH);
-        contentPanel.add(boardPanel, BorderLayout.CENTER);
+        contentPanel.add(createBoard(game, framesPerSecond), BorderLayout.CENTER);
 
         pack();
     }
 
+    /**
+     * Creates the component displaying the game.
+     *
+     * @param game
+     *            The game to display.
+     * @param framesPerSecond
+     *            The target frame rate of active rendering, or 0 to have
+     *            Swing paint the game.
+     * @return A canvas rendered by {@link #renderLoop}, or the
+     *         {@link #boardPanel}.
+     */
+    private Component createBoard(Game game, int framesPerSecond) {
+        assert framesPerSecond >= 0;
+        if (framesPerSecond == 0) {
+            boardPanel = new BoardPanel(game);
+            return boardPanel;
+        }
+        BoardCanvas canvas = new BoardCanvas(game);
+        boardCanvas = canvas;
+        renderLoop = new RenderLoop(framesPerSecond, () -> {
+            refreshScoresLater();
+            return canvas.renderFrame();
+        });
+        return canvas;
+    }
+
+    /**
+     * Hands a refresh of the scores to the event dispatch thread, unless one
+     * is waiting there already. May be called from any thread.
+     */
+    private void refreshScoresLater() {
+        if (scoreRefreshPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                scoreRefreshPending.set(false);
+                scorePanel.refresh();
+            });
+        }
+    }
+
     /**
      * Starts the "engine", the thread that redraws the interface at set
      * intervals.
      */
     public void start() {
         setVisible(true);
+        if (renderLoop != null) {
+            renderLoop.start();
+            return;
+        }
         ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
         service.scheduleAtFixedRate(this::nextFrame, 0, FRAME_INTERVAL, TimeUnit.MILLISECONDS);
     }
 
     /**
-     * Draws the next frame, i.e. refreshes the scores and game.
+     * Stops the active rendering of the game, if any, and disposes of the
+     * window.
+     */
+    @Override
+    public void dispose() {
+        if (renderLoop != null) {
+            renderLoop.stop();
+        }
+        super.dispose();
+    }
+
+    /**
+     * Renders the game into the pixels of an image with a
+     * {@link RasterRenderer} before drawing it, instead of drawing every
+     * square through the graphics context. Has no effect if the game is
+     * rendered actively.
+     *
+     * @param raster
+     *            <code>true</code> to render with a raster renderer.
+     */
+    void setRasterRendering(boolean raster) {
+        if (boardPanel != null) {
+            boardPanel.setRasterRendering(raster);
+        }
+    }
+
+    /**
+     * Shows the part of the board a camera sees, with squares of a fixed
+     * size, instead of scaling the whole board to the window.
+     *
+     * @param view
+     *            The camera choosing the part of the board to show.
+     */
+    void setCamera(Camera view) {
+        assert view != null;
+        this.camera = view;
+        if (boardPanel != null) {
+            boardPanel.setCamera(view);
+        } else {
+            boardCanvas.setCamera(view);
+        }
+        pack();
+    }
+
+    /**
+     * Records a frame of the board whenever it is rendered.
+     *
+     * @param recorder
+     *            The recorder to capture frames with.
+     */
+    void setRecorder(FrameRecorder recorder) {
+        assert recorder != null;
+        if (boardPanel != null) {
+            boardPanel.setRecorder(recorder);
+        } else {
+            boardCanvas.setRecorder(recorder);
+        }
+    }
+
+    /**
+     * @return The camera choosing the part of the board to show, which can be
+     *         panned, or <code>null</code> if the whole board is shown.
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Returns the statistics of the frames rendered, if the game is rendered
+     * actively.
+     *
+     * @return The frame statistics, or <code>null</code> if the game is
+     *         painted by Swing.
+     */
+    public FrameMetrics getFrameMetrics() {
+        if (renderLoop == null) {
+            return null;
+        }
+        return renderLoop.getMetrics();
+    }
+
+    /**
+     * Draws the next frame, i.e. refreshes the scores and the parts of the
+     * game that changed.
      */
     private void nextFrame() {
-        boardPanel.repaint();
+        boardPanel.refresh();
         scorePanel.refresh();
     }
 }
@@ -44,6 +44,29 @@ public class PacManUiBuilder {
      */
     private ScoreFormatter scoreFormatter = null;
 
+    /**
+     * The target frame rate of active rendering, or 0 to let Swing paint.
+     */
+    private int framesPerSecond = 0;
+
+    /**
+     * <code>true</code> iff the board is rendered into the pixels of an
+     * image before it is drawn.
+     */
+    private boolean rasterRendering = false;
+
+    /**
+     * The size of a square when the board is shown through a camera
+     * following the first player, or 0 to show the whole board.
+     */
+    private int cameraSquareSize = 0;
+
+    /**
+     * The recorder capturing the frames rendered, or <code>null</code> if
+     * frames are not recorded.
+     */
+    private FrameRecorder recorder;
+
     /**
      * Creates a new Pac-Man UI builder without any mapped keys or buttons.
      */
@@ -67,7 +90,17 @@ public class PacManUiBuilder {
             addStartButton(game);
             addStopButton(game);
         }
-        return new PacManUI(game, buttons, keyMappings, scoreFormatter);
+        PacManUI ui = new PacManUI(game, buttons, keyMappings, scoreFormatter, framesPerSecond);
+        ui.setRasterRendering(rasterRendering);
+        if (cameraSquareSize > 0) {
+            Camera camera = new Camera(cameraSquareSize);
+            camera.follow(game.getPlayers().get(0));
+            ui.setCamera(camera);
+        }
+        if (recorder != null) {
+            ui.setRecorder(recorder);
+        }
+        return ui;
     }
 
     /**
@@ -156,4 +189,64 @@ public class PacManUiBuilder {
         this.scoreFormatter = scoreFormatter;
         return this;
     }
+
+    /**
+     * Renders the game actively on a dedicated thread through a buffer
+     * strategy, instead of having Swing paint it. Frames that cannot be
+     * rendered in time are skipped; see {@link PacManUI#getFrameMetrics()}.
+     *
+     * @param framesPerSecond
+     *            The target number of frames per second. Must be positive.
+     * @return The builder.
+     */
+    public PacManUiBuilder withActiveRendering(int framesPerSecond) {
+        assert framesPerSecond > 0;
+        this.framesPerSecond = framesPerSecond;
+        return this;
+    }
+
+    /**
+     * Renders the board into the pixels of an image with a
+     * {@link RasterRenderer} before drawing it, instead of drawing every
+     * square through the graphics context. Only applies when the game is
+     * not rendered actively.
+     *
+     * @return The builder.
+     */
+    public PacManUiBuilder withRasterRendering() {
+        this.rasterRendering = true;
+        return this;
+    }
+
+    /**
+     * Shows the board through a camera with squares of a fixed size that
+     * follows the first player, instead of scaling the whole board to the
+     * window. Only the visible squares are drawn, so large boards render as
+     * fast as small ones. The camera can be panned through
+     * {@link PacManUI#getCamera()}.
+     *
+     * @param squareSize
+     *            The width and height of a square on the screen, in pixels.
+     * @return The builder.
+     */
+    public PacManUiBuilder withCamera(int squareSize) {
+        assert squareSize > 0;
+        this.cameraSquareSize = squareSize;
+        return this;
+    }
+
+    /**
+     * Records the frames of the board as they are rendered. Frames are
+     * dropped rather than slowing the game down when the recorder falls
+     * behind. The caller closes the recorder when done.
+     *
+     * @param frames
+     *            The recorder to capture frames with.
+     * @return The builder.
+     */
+    public PacManUiBuilder withRecorder(FrameRecorder frames) {
+        assert frames != null;
+        this.recorder = frames;
+        return this;
+    }
 }
@@ -0,0 +1,258 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.PelletLayer;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+/**
+ * Renders levels by writing pixels straight into the <code>int[]</code>
+ * behind an image, instead of drawing each square through a
+ * {@link Graphics} context. Walls and floors are copied row by row from the
+ * {@link BackgroundLayer}, and sprites copy their pre-scaled pixels with
+ * {@link Sprite#drawPixels(int[], int, int, int, int)}. Sprites that cannot
+ * are drawn through a graphics context after all.
+ *
+ * <p>The image is not accelerated, so this renderer suits exporting frames
+ * and rendering large boards more than drawing onto a screen, which needs an
+ * extra copy of the image.</p>
+ */
+public class RasterRenderer {
+
+    /**
+     * The background colour of the board, as an RGB pixel.
+     */
+    private static final int BACKGROUND = Color.BLACK.getRGB();
+
+    /**
+     * The walls and floors of the board, rendered at the current cell size.
+     */
+    private final BackgroundLayer background = new BackgroundLayer(Color.BLACK);
+
+    /**
+     * The image rendered into.
+     */
+    private BufferedImage image;
+
+    /**
+     * The pixels of {@link #image}, row by row.
+     */
+    private int[] pixels;
+
+    /**
+     * A graphics context on {@link #image} for sprites that cannot provide
+     * their pixels, or <code>null</code> if none was needed yet.
+     */
+    private Graphics fallback;
+
+    /**
+     * Creates a new renderer that renders levels scaled to an image of the
+     * given size.
+     *
+     * @param width
+     *            The width of the image, in pixels.
+     * @param height
+     *            The height of the image, in pixels.
+     */
+    public RasterRenderer(int width, int height) {
+        setSize(width, height);
+    }
+
+    /**
+     * Creates a new renderer for an image in which each square of a board
+     * takes the given number of pixels.
+     *
+     * @param board
+     *            The board to size the image for.
+     * @param squareSize
+     *            The width and height of a square, in pixels.
+     * @return The new renderer.
+     */
+    public static RasterRenderer forBoard(Board board, int squareSize) {
+        assert squareSize > 0;
+        return new RasterRenderer(board.getWidth() * squareSize,
+            board.getHeight() * squareSize);
+    }
+
+    /**
+     * Resizes the image, replacing it with a new, black one if the size
+     * differs.
+     *
+     * @param width
+     *            The width of the image, in pixels.
+     * @param height
+     *            The height of the image, in pixels.
+     */
+    public void setSize(int width, int height) {
+        assert width > 0 && height > 0;
+        if (image != null && image.getWidth() == width && image.getHeight() == height) {
+            return;
+        }
+        if (fallback != null) {
+            fallback.dispose();
+            fallback = null;
+        }
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * @return The image rendered into.
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Renders a level into the whole image.
+     *
+     * @param level
+     *            The level to render.
+     * @return The image, which the next call renders over.
+     */
+    public BufferedImage render(Level level) {
+        return render(level, new Rectangle(image.getWidth(), image.getHeight()));
+    }
+
+    /**
+     * Renders the squares of a level that overlap an area of the image,
+     * leaving the rest of the image as it was. Ticks the animation clock of
+     * the level first, so animations show the current time.
+     *
+     * @param level
+     *            The level to render.
+     * @param area
+     *            The area of the image to render, in pixels.
+     * @return The image, which the next call renders over.
+     */
+    public BufferedImage render(Level level, Rectangle area) {
+        level.getClock().tick();
+        Board board = level.getBoard();
+        int cellW = image.getWidth() / board.getWidth();
+        int cellH = image.getHeight() / board.getHeight();
+        Rectangle clip = area.intersection(new Rectangle(image.getWidth(), image.getHeight()));
+        if (clip.isEmpty()) {
+            return image;
+        }
+        if (cellW <= 0 || cellH <= 0) {
+            fill(clip);
+            return image;
+        }
+        Rectangle cells = new Rectangle(clip.x / cellW, clip.y / cellH,
+            (clip.x + clip.width - 1) / cellW - clip.x / cellW + 1,
+            (clip.y + clip.height - 1) / cellH - clip.y / cellH + 1)
+            .intersection(new Rectangle(board.getWidth(), board.getHeight()));
+        fillMargins(clip, board.getWidth() * cellW, board.getHeight() * cellH);
+        copyBackground(board, cells, cellW, cellH);
+        renderPellets(board, level.getPellets(), cells, cellW, cellH);
+        renderUnits(board, cells, cellW, cellH);
+        return image;
+    }
+
+    private void fill(Rectangle area) {
+        if (area.isEmpty()) {
+            return;
+        }
+        int width = image.getWidth();
+        for (int y = area.y; y < area.y + area.height; y++) {
+            Arrays.fill(pixels, y * width + area.x, y * width + area.x + area.width,
+                BACKGROUND);
+        }
+    }
+
+    private void fillMargins(Rectangle clip, int boardW, int boardH) {
+        fill(clip.intersection(new Rectangle(boardW, 0, image.getWidth() - boardW,
+            image.getHeight())));
+        fill(clip.intersection(new Rectangle(0, boardH, boardW, image.getHeight() - boardH)));
+    }
+
+    private void copyBackground(Board board, Rectangle cells, int cellW, int cellH) {
+        if (cells.isEmpty()) {
+            return;
+        }
+        BufferedImage layer = background.get(board, cellW, cellH, null);
+        int[] source = ((DataBufferInt) layer.getRaster().getDataBuffer()).getData();
+        int stride = layer.getWidth();
+        int width = image.getWidth();
+        int left = cells.x * cellW;
+        int length = cells.width * cellW;
+        for (int y = cells.y * cellH; y < (cells.y + cells.height) * cellH; y++) {
+            System.arraycopy(source, y * stride + left, pixels, y * width + left, length);
+        }
+    }
+
+    /**
+     * Renders the pellets of a pellet layer.
+     *
+     * @param board
+     *            The board the pellets are on.
+     * @param pellets
+     *            The pellets to render.
+     * @param cells
+     *            The columns and rows of the squares to render.
+     * @param cellW
+     *            The width of a square (in pixels.)
+     * @param cellH
+     *            The height of a square (in pixels.)
+     */
+    private void renderPellets(Board board, PelletLayer pellets, Rectangle cells,
+                               int cellW, int cellH) {
+        Sprite sprite = pellets.getSprite();
+        int width = board.getWidth();
+        for (int y = cells.y; y < cells.y + cells.height; y++) {
+            int end = y * width + cells.x + cells.width;
+            for (int i = pellets.nextPellet(y * width + cells.x); i >= 0 && i < end;
+                 i = pellets.nextPellet(i + 1)) {
+                drawSprite(sprite, i % width * cellW, y * cellH, cellW, cellH);
+            }
+        }
+    }
+
+    /**
+     * Renders the units on the occupied squares of the board.
+     *
+     * @param board
+     *            The board with the units.
+     * @param cells
+     *            The columns and rows of the squares to render.
+     * @param cellW
+     *            The width of a square (in pixels.)
+     * @param cellH
+     *            The height of a square (in pixels.)
+     */
+    private void renderUnits(Board board, Rectangle cells, int cellW, int cellH) {
+        int width = board.getWidth();
+        for (Square square : board.getOccupiedSquares()) {
+            int column = square.getIndex() % width;
+            int row = square.getIndex() / width;
+            if (!cells.contains(column, row)) {
+                continue;
+            }
+            List<Unit> occupants = square.getOccupants();
+            for (int i = 0; i < occupants.size(); i++) {
+                drawSprite(occupants.get(i).getSprite(), column * cellW, row * cellH,
+                    cellW, cellH);
+            }
+        }
+    }
+
+    private void drawSprite(Sprite sprite, int x, int y, int width, int height) {
+        int scanline = image.getWidth();
+        if (!sprite.drawPixels(pixels, y * scanline + x, scanline, width, height)) {
+            if (fallback == null) {
+                fallback = image.getGraphics();
+            }
+            sprite.draw(fallback, x, y, width, height);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package nl.tudelft.jpacman.ui;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Renders frames on a dedicated thread at a target frame rate. Frames are
+ * started on a fixed schedule rather than a fixed delay after the previous
+ * one, so the interval between frames does not drift. When a frame takes
+ * longer than the interval, the frames whose start time has passed are
+ * skipped instead of rendered late in a burst, and counted as dropped in the
+ * {@link FrameMetrics}.
+ */
+final class RenderLoop implements Runnable {
+
+    /**
+     * The time between the starts of two frames, in nanoseconds.
+     */
+    private final long period;
+
+    /**
+     * Renders and shows a frame, returning whether a frame was shown.
+     */
+    private final BooleanSupplier frame;
+
+    /**
+     * The statistics of the frames rendered.
+     */
+    private final FrameMetrics metrics = new FrameMetrics();
+
+    /**
+     * The thread rendering the frames, or <code>null</code> if not started.
+     */
+    private Thread thread;
+
+    /**
+     * <code>true</code> iff the loop should keep rendering.
+     */
+    private volatile boolean running;
+
+    /**
+     * Creates a new render loop.
+     *
+     * @param framesPerSecond
+     *            The target number of frames per second. Must be positive.
+     * @param frame
+     *            Renders and shows a frame, returning <code>true</code> iff a
+     *            frame was actually shown.
+     */
+    RenderLoop(int framesPerSecond, BooleanSupplier frame) {
+        assert framesPerSecond > 0;
+        assert frame != null;
+        this.period = TimeUnit.SECONDS.toNanos(1) / framesPerSecond;
+        this.frame = frame;
+    }
+
+    /**
+     * @return The statistics of the frames rendered by this loop.
+     */
+    FrameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Starts rendering on a new daemon thread. Does nothing if the loop is
+     * already running.
+     */
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "JPacman renderer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops rendering after the current frame.
+     */
+    synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        long deadline = System.nanoTime();
+        long lastShown = -1L;
+        while (running) {
+            boolean shown = frame.getAsBoolean();
+            long now = System.nanoTime();
+            if (shown) {
+                if (lastShown < 0L) {
+                    metrics.frameShown();
+                } else {
+                    metrics.frameShown(now - lastShown);
+                }
+                lastShown = now;
+            }
+            deadline += period;
+            if (now > deadline) {
+                long missed = (now - deadline) / period + 1;
+                metrics.framesDropped(missed);
+                deadline += missed * period;
+            }
+            waitUntil(deadline);
+        }
+    }
+
+    private void waitUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (running && remaining > 0L) {
+            LockSupport.parkNanos(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package nl.tudelft.jpacman.ui;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardTopology;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.UnitKind;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.PelletLayer;
+
+/**
+ * Renders levels as text on an ANSI terminal, with the characters of the
+ * {@link nl.tudelft.jpacman.level.MapParser}: <code>#</code> for walls,
+ * <code>.</code> for pellets, <code>P</code> for players and
+ * <code>G</code> for ghosts. The first frame draws the whole board; later
+ * frames only move the cursor to the cells that changed and redraw those, so
+ * a game in progress takes a few bytes per frame. Each frame is sent with a
+ * single write. The cursor is hidden while frames are shown, until
+ * {@link #restore()} shows it again.
+ *
+ * <p>Must only be used from one thread at a time.</p>
+ */
+public class TerminalRenderer {
+
+    /**
+     * The character of a wall.
+     */
+    private static final byte WALL = '#';
+
+    /**
+     * The character of an empty square.
+     */
+    private static final byte EMPTY = ' ';
+
+    /**
+     * The character of a pellet.
+     */
+    private static final byte PELLET = '.';
+
+    /**
+     * The character of a player.
+     */
+    private static final byte PLAYER = 'P';
+
+    /**
+     * The character of a ghost.
+     */
+    private static final byte GHOST = 'G';
+
+    /**
+     * Hides the cursor, moves it to the top left and clears the screen.
+     */
+    private static final byte[] CLEAR = "\u001b[?25l\u001b[H\u001b[2J"
+        .getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Shows the cursor again.
+     */
+    private static final byte[] SHOW_CURSOR = "\u001b[?25h"
+        .getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Ends a row of the board on the first frame.
+     */
+    private static final byte[] NEW_LINE = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The largest number of unchanged cells rewritten to reach a changed cell
+     * further on the same row, since moving the cursor takes more bytes.
+     */
+    private static final int MAX_GAP = 4;
+
+    /**
+     * The initial size of the output buffer, in bytes.
+     */
+    private static final int INITIAL_BUFFER = 4096;
+
+    /**
+     * The number base of the row and column numbers of cursor moves.
+     */
+    private static final int DECIMAL = 10;
+
+    /**
+     * The terminal written to.
+     */
+    private final OutputStream out;
+
+    /**
+     * The bytes of the frame being written.
+     */
+    private byte[] buffer = new byte[INITIAL_BUFFER];
+
+    /**
+     * The number of bytes of the frame being written.
+     */
+    private int length;
+
+    /**
+     * The board shown on the terminal, or <code>null</code> if the next frame
+     * must draw the whole board.
+     */
+    private Board shownBoard;
+
+    /**
+     * The characters shown on the terminal, one per square, row by row.
+     */
+    private byte[] shown = new byte[0];
+
+    /**
+     * The characters of the frame being rendered, one per square.
+     */
+    private byte[] next = new byte[0];
+
+    /**
+     * The walls and empty squares of {@link #shownBoard}, one per square.
+     */
+    private byte[] background = new byte[0];
+
+    /**
+     * The index of the cell the cursor is at, or -1 if it is not known.
+     */
+    private int cursor = -1;
+
+    /**
+     * The number of bytes written to the terminal.
+     */
+    private long bytesWritten;
+
+    /**
+     * Creates a new renderer writing to a terminal.
+     *
+     * @param out
+     *            The terminal to write to, such as {@link System#out}.
+     */
+    public TerminalRenderer(OutputStream out) {
+        assert out != null;
+        this.out = out;
+    }
+
+    /**
+     * Makes the next frame clear the screen and draw the whole board, for
+     * instance after something else wrote to the terminal.
+     */
+    public void reset() {
+        shownBoard = null;
+    }
+
+    /**
+     * Shows the cursor again and moves it to the line below the board, so
+     * the terminal can be used as before, for instance when the game ends.
+     * The next frame draws the whole board again.
+     *
+     * @throws IOException
+     *             If the terminal could not be written to.
+     */
+    public void restore() throws IOException {
+        length = 0;
+        if (shownBoard != null) {
+            moveCursor(shownBoard.getHeight(), 0);
+        }
+        append(SHOW_CURSOR);
+        reset();
+        write();
+    }
+
+    /**
+     * @return The number of bytes written to the terminal.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Renders a level, writing only the cells that changed since the previous
+     * frame, or the whole board if the board changed. If the frame could not
+     * be written, the next frame draws the whole board again.
+     *
+     * @param level
+     *            The level to render.
+     * @return The number of bytes written, 0 if nothing changed.
+     * @throws IOException
+     *             If the terminal could not be written to.
+     */
+    public int render(Level level) throws IOException {
+        Board board = level.getBoard();
+        length = 0;
+        if (board != shownBoard) {
+            prepare(board);
+            compose(level);
+            drawAll(board.getWidth());
+            shownBoard = board;
+        } else {
+            compose(level);
+            drawChanges(board.getWidth());
+        }
+        write();
+        byte[] swap = shown;
+        shown = next;
+        next = swap;
+        return length;
+    }
+
+    /**
+     * Writes the bytes in the buffer to the terminal, if any. If they could
+     * not all be written, the terminal shows something unknown, so the next
+     * frame draws the whole board again.
+     *
+     * @throws IOException
+     *             If the terminal could not be written to.
+     */
+    private void write() throws IOException {
+        if (length == 0) {
+            return;
+        }
+        try {
+            out.write(buffer, 0, length);
+            out.flush();
+        } catch (IOException e) {
+            reset();
+            throw e;
+        }
+        bytesWritten += length;
+    }
+
+    private void prepare(Board board) {
+        BoardTopology topology = board.getTopology();
+        int cells = board.getWidth() * board.getHeight();
+        background = new byte[cells];
+        for (int i = 0; i < cells; i++) {
+            if (topology.isWalkable(i)) {
+                background[i] = EMPTY;
+            } else {
+                background[i] = WALL;
+            }
+        }
+        shown = new byte[cells];
+        next = new byte[cells];
+    }
+
+    /**
+     * Fills {@link #next} with the characters of a level, starting from the
+     * background and adding the pellets and the occupied squares only.
+     *
+     * @param level
+     *            The level to compose.
+     */
+    private void compose(Level level) {
+        System.arraycopy(background, 0, next, 0, background.length);
+        PelletLayer pellets = level.getPellets();
+        for (int i = pellets.nextPellet(0); i >= 0; i = pellets.nextPellet(i + 1)) {
+            next[i] = PELLET;
+        }
+        for (Square square : level.getBoard().getOccupiedSquares()) {
+            if (square.hasOccupant(UnitKind.PLAYER)) {
+                next[square.getIndex()] = PLAYER;
+            } else if (square.hasOccupant(UnitKind.GHOST)) {
+                next[square.getIndex()] = GHOST;
+            } else if (square.hasOccupant(UnitKind.PELLET)) {
+                next[square.getIndex()] = PELLET;
+            }
+        }
+    }
+
+    private void drawAll(int width) {
+        append(CLEAR);
+        for (int row = 0; row < next.length / width; row++) {
+            ensureCapacity(width);
+            System.arraycopy(next, row * width, buffer, length, width);
+            length += width;
+            append(NEW_LINE);
+        }
+        cursor = -1;
+    }
+
+    /**
+     * Writes the cells of {@link #next} that differ from {@link #shown}. The
+     * cursor is moved to each changed cell, unless it is a few cells further
+     * on the same row, in which case the unchanged cells in between are
+     * written again.
+     *
+     * @param width
+     *            The number of cells in a row.
+     */
+    private void drawChanges(int width) {
+        for (int i = 0; i < next.length; i++) {
+            if (next[i] == shown[i]) {
+                continue;
+            }
+            int gap = i - cursor;
+            if (cursor >= 0 && gap >= 0 && gap <= MAX_GAP && cursor / width == i / width) {
+                ensureCapacity(gap);
+                System.arraycopy(next, cursor, buffer, length, gap);
+                length += gap;
+            } else {
+                moveCursor(i / width, i % width);
+            }
+            ensureCapacity(1);
+            buffer[length++] = next[i];
+            cursor = i + 1;
+            if (cursor % width == 0) {
+                cursor = -1;
+            }
+        }
+    }
+
+    private void moveCursor(int row, int column) {
+        append((byte) '\u001b');
+        append((byte) '[');
+        appendNumber(row + 1);
+        append((byte) ';');
+        appendNumber(column + 1);
+        append((byte) 'H');
+    }
+
+    private void appendNumber(int number) {
+        if (number >= DECIMAL) {
+            appendNumber(number / DECIMAL);
+        }
+        append((byte) ('0' + number % DECIMAL));
+    }
+
+    private void append(byte value) {
+        ensureCapacity(1);
+        buffer[length++] = value;
+    }
+
+    private void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}